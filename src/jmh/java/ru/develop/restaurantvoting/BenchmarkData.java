@@ -0,0 +1,55 @@
+package ru.develop.restaurantvoting;
+
+import lombok.experimental.UtilityClass;
+import ru.develop.restaurantvoting.restaurant.model.MenuItem;
+import ru.develop.restaurantvoting.restaurant.model.Restaurant;
+import ru.develop.restaurantvoting.restaurant.model.Vote;
+import ru.develop.restaurantvoting.restaurant.to.RestaurantMenuItemTo;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+@UtilityClass
+public class BenchmarkData {
+    public static final LocalDate TODAY = LocalDate.of(2026, 1, 15);
+
+    public static List<Restaurant> restaurants(int count, int itemsPerRestaurant) {
+        List<Restaurant> restaurants = new ArrayList<>(count);
+        int itemId = 1;
+        for (int i = 1; i <= count; i++) {
+            Restaurant restaurant = new Restaurant(i, "Restaurant " + i, i + " Tverskaya street, Moscow");
+            List<MenuItem> menuItems = new ArrayList<>(itemsPerRestaurant);
+            for (int j = 1; j <= itemsPerRestaurant; j++, itemId++) {
+                MenuItem menuItem = new MenuItem(itemId, "Dish " + j, TODAY,
+                        "Chef's dish number " + j + " with seasonal vegetables", 100 + j * 10);
+                menuItem.setRestaurant(restaurant);
+                menuItems.add(menuItem);
+            }
+            restaurant.setMenuItems(menuItems);
+            restaurants.add(restaurant);
+        }
+        return restaurants;
+    }
+
+    public static List<RestaurantMenuItemTo> menuRows(List<Restaurant> restaurants) {
+        List<RestaurantMenuItemTo> rows = new ArrayList<>();
+        for (Restaurant restaurant : restaurants) {
+            for (MenuItem menuItem : restaurant.getMenuItems()) {
+                rows.add(new RestaurantMenuItemTo(restaurant.getId(), restaurant.getName(), menuItem.getId(),
+                        menuItem.getMenuDate(), menuItem.getName(), menuItem.getDescription(), menuItem.getPrice()));
+            }
+        }
+        return rows;
+    }
+
+    public static List<Vote> votes(int count, List<Restaurant> restaurants) {
+        List<Vote> votes = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            Vote vote = new Vote(i, TODAY.minusDays(i));
+            vote.setRestaurant(restaurants.get(i % restaurants.size()));
+            votes.add(vote);
+        }
+        return votes;
+    }
+}
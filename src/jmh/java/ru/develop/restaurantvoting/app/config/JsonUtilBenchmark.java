@@ -0,0 +1,44 @@
+package ru.develop.restaurantvoting.app.config;
+
+import org.openjdk.jmh.annotations.*;
+import ru.develop.restaurantvoting.BenchmarkData;
+import ru.develop.restaurantvoting.common.util.JsonUtil;
+import ru.develop.restaurantvoting.restaurant.to.RestaurantWithMenuTo;
+import ru.develop.restaurantvoting.restaurant.util.RestaurantsUtil;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonUtilBenchmark {
+
+    @Param({"3", "100", "5000"})
+    private int restaurants;
+
+    @Param({"10", "100"})
+    private int itemsPerRestaurant;
+
+    private List<RestaurantWithMenuTo> menus;
+
+    @Setup
+    public void setUp() {
+        // same mapper as the application context, including Hibernate7Module
+        new AppConfig().objectMapper();
+        menus = RestaurantsUtil.getWithMenuTos(BenchmarkData.restaurants(restaurants, itemsPerRestaurant));
+    }
+
+    @Benchmark
+    public String writeValue() {
+        return JsonUtil.writeValue(menus);
+    }
+
+    @Benchmark
+    public byte[] writeBytes() {
+        return JsonUtil.writeBytes(menus);
+    }
+}
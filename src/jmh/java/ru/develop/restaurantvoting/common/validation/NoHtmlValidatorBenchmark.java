@@ -0,0 +1,43 @@
+package ru.develop.restaurantvoting.common.validation;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NoHtmlValidatorBenchmark {
+
+    @Param({"NAME", "DESCRIPTION", "DESCRIPTION_WITH_AMPERSAND", "HTML"})
+    private Input input;
+
+    private final NoHtmlValidator validator = new NoHtmlValidator();
+    private String value;
+
+    @Setup
+    public void setUp() {
+        value = input.value;
+    }
+
+    @Benchmark
+    public boolean isValid() {
+        return validator.isValid(value, null);
+    }
+
+    public enum Input {
+        NAME("Burger King"),
+        DESCRIPTION("Grilled beef patty, cheddar, pickles and onions on a toasted bun. ".repeat(2)),
+        DESCRIPTION_WITH_AMPERSAND("Grilled beef patty, cheddar, pickles & onions on a toasted bun. ".repeat(2)),
+        HTML("<b>Big</b> Burger <script>alert('x')</script>");
+
+        private final String value;
+
+        Input(String value) {
+            this.value = value;
+        }
+    }
+}
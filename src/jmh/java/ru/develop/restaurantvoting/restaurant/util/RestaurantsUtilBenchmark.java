@@ -0,0 +1,49 @@
+package ru.develop.restaurantvoting.restaurant.util;
+
+import org.openjdk.jmh.annotations.*;
+import ru.develop.restaurantvoting.BenchmarkData;
+import ru.develop.restaurantvoting.restaurant.model.Restaurant;
+import ru.develop.restaurantvoting.restaurant.to.RestaurantMenuItemTo;
+import ru.develop.restaurantvoting.restaurant.to.RestaurantWithMenuTo;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RestaurantsUtilBenchmark {
+
+    @Param({"3", "100", "5000"})
+    private int restaurants;
+
+    @Param({"10", "100"})
+    private int itemsPerRestaurant;
+
+    private List<Restaurant> data;
+    private List<RestaurantMenuItemTo> rows;
+
+    @Setup
+    public void setUp() {
+        data = BenchmarkData.restaurants(restaurants, itemsPerRestaurant);
+        rows = BenchmarkData.menuRows(data);
+    }
+
+    @Benchmark
+    public RestaurantWithMenuTo createWithMenuTo() {
+        return RestaurantsUtil.createWithMenuTo(data.get(0));
+    }
+
+    @Benchmark
+    public List<RestaurantWithMenuTo> getWithMenuTos() {
+        return RestaurantsUtil.getWithMenuTos(data);
+    }
+
+    @Benchmark
+    public List<RestaurantWithMenuTo> groupWithMenuTos() {
+        return RestaurantsUtil.groupWithMenuTos(rows);
+    }
+}
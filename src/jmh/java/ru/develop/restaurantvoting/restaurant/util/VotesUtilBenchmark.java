@@ -0,0 +1,33 @@
+package ru.develop.restaurantvoting.restaurant.util;
+
+import org.openjdk.jmh.annotations.*;
+import ru.develop.restaurantvoting.BenchmarkData;
+import ru.develop.restaurantvoting.restaurant.model.Vote;
+import ru.develop.restaurantvoting.restaurant.to.VoteTo;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VotesUtilBenchmark {
+
+    @Param({"30", "365", "5000"})
+    private int votes;
+
+    private List<Vote> data;
+
+    @Setup
+    public void setUp() {
+        data = BenchmarkData.votes(votes, BenchmarkData.restaurants(3, 0));
+    }
+
+    @Benchmark
+    public List<VoteTo> getTos() {
+        return VotesUtil.getTos(data);
+    }
+}
@@ -0,0 +1,83 @@
+package ru.develop.restaurantvoting.app;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.crypto.KeyGenerator;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.util.HexFormat;
+
+@Component
+@Slf4j
+public class AuthCache {
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final Cache<String, AuthUser> cache;
+    private final SecretKey key;
+
+    public AuthCache(@Value("${app.auth-cache.max-size:10000}") long maxSize,
+                     @Value("${app.auth-cache.ttl:5m}") Duration ttl) throws GeneralSecurityException {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.key = KeyGenerator.getInstance(HMAC_ALGORITHM).generateKey();
+    }
+
+    public AuthUser get(String email, String password) {
+        return cache.getIfPresent(digest(email, password));
+    }
+
+    public void put(String email, String password, AuthUser authUser) {
+        cache.put(digest(email, password), authUser);
+    }
+
+    public void evict(int userId) {
+        removeUser(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    removeUser(userId);
+                }
+            });
+        }
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    private void removeUser(int userId) {
+        if (cache.asMap().values().removeIf(authUser -> authUser.id() == userId)) {
+            log.debug("Evicted cached credentials of user {}", userId);
+        }
+    }
+
+    private String digest(String email, String password) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(key);
+            mac.update(email.toLowerCase().getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            return HexFormat.of().formatHex(mac.doFinal(password.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(HMAC_ALGORITHM + " is not available", e);
+        }
+    }
+}
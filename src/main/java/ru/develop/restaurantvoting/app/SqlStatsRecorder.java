@@ -0,0 +1,81 @@
+package ru.develop.restaurantvoting.app;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import ru.develop.restaurantvoting.common.sql.SqlStats;
+import ru.develop.restaurantvoting.common.to.SqlStatsTo;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+@Slf4j
+public class SqlStatsRecorder implements AsyncHandlerInterceptor {
+    private static final String STATS_ATTRIBUTE = SqlStatsRecorder.class.getName() + ".STATS";
+
+    private final ConcurrentMap<String, HandlerStats> handlers = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod) {
+            request.setAttribute(STATS_ATTRIBUTE, SqlStats.open());
+        }
+        return true;
+    }
+
+    // the handler thread is released here, the scope must not outlive it
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        record(request, handler);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        record(request, handler);
+    }
+
+    public Map<String, SqlStatsTo> getStats() {
+        Map<String, SqlStatsTo> stats = new TreeMap<>();
+        handlers.forEach((name, handler) -> stats.put(name, handler.toTo()));
+        return stats;
+    }
+
+    private void record(HttpServletRequest request, Object handler) {
+        if (!(request.getAttribute(STATS_ATTRIBUTE) instanceof SqlStats stats)) {
+            return;
+        }
+        request.removeAttribute(STATS_ATTRIBUTE);
+        stats.close();
+        HandlerMethod method = (HandlerMethod) handler;
+        String name = method.getBeanType().getSimpleName() + '.' + method.getMethod().getName();
+        handlers.computeIfAbsent(name, n -> new HandlerStats()).add(stats);
+        log.debug("{} {} ({}): {}", request.getMethod(), request.getRequestURI(), name, stats);
+    }
+
+    private static class HandlerStats {
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder statements = new LongAdder();
+        private final AtomicInteger maxStatements = new AtomicInteger();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder jdbcNanos = new LongAdder();
+
+        void add(SqlStats stats) {
+            requests.increment();
+            statements.add(stats.getStatements());
+            maxStatements.accumulateAndGet(stats.getStatements(), Math::max);
+            rows.add(stats.getRows());
+            jdbcNanos.add(stats.getJdbcNanos());
+        }
+
+        SqlStatsTo toTo() {
+            return new SqlStatsTo(requests.sum(), statements.sum(), maxStatements.get(), rows.sum(),
+                    jdbcNanos.sum() / 1_000_000);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package ru.develop.restaurantvoting.app;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.develop.restaurantvoting.common.util.JsonUtil;
+import ru.develop.restaurantvoting.user.model.Role;
+import ru.develop.restaurantvoting.user.model.User;
+import ru.develop.restaurantvoting.user.repository.UserRepository;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Set;
+
+/**
+ * Issues and verifies signed access tokens. The minimum accepted token version of a user is loaded from
+ * {@code users.token_version} and kept for at most one token lifetime, so a revocation made on another node or
+ * before a restart rejects older tokens within that lifetime; revocations on this node apply once committed.
+ */
+@Component
+@Slf4j
+public class TokenService {
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+    // cached for users that are gone or disabled, so their tokens are rejected without a query per request
+    private static final int REJECTED = Integer.MAX_VALUE;
+
+    private final SecretKeySpec key;
+    private final Duration ttl;
+    private final UserRepository userRepository;
+    private final LoadingCache<Integer, Integer> minVersions;
+
+    public TokenService(@Value("${app.token.secret}") String secret,
+                        @Value("${app.token.ttl:15m}") Duration ttl,
+                        UserRepository userRepository) {
+        byte[] keyBytes = Base64.getDecoder().decode(secret);
+        if (keyBytes.length < 32) {
+            throw new IllegalArgumentException("app.token.secret must be at least 256 bits");
+        }
+        this.key = new SecretKeySpec(keyBytes, HMAC_ALGORITHM);
+        this.ttl = ttl;
+        this.userRepository = userRepository;
+        this.minVersions = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .build(this::loadMinVersion);
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public String issue(int userId) {
+        User user = userRepository.getExisted(userId);
+        if (!user.isEnabled()) {
+            throw new DisabledException("User " + userId + " is disabled");
+        }
+        int version = minVersions.asMap().merge(userId, user.getTokenVersion(),
+                (current, stored) -> current == REJECTED ? stored : Math.max(current, stored));
+        TokenClaims claims = new TokenClaims(user.id(), user.getEmail(), user.getRoles(), version,
+                Instant.now().plus(ttl).getEpochSecond());
+        String payload = ENCODER.encodeToString(JsonUtil.writeValue(claims).getBytes(StandardCharsets.UTF_8));
+        return payload + '.' + ENCODER.encodeToString(sign(payload));
+    }
+
+    public AuthUser verify(String token) {
+        int dot = token.indexOf('.');
+        if (dot <= 0) {
+            return null;
+        }
+        String payload = token.substring(0, dot);
+        try {
+            if (!MessageDigest.isEqual(sign(payload), DECODER.decode(token.substring(dot + 1)))) {
+                return null;
+            }
+            TokenClaims claims = JsonUtil.readValue(new String(DECODER.decode(payload), StandardCharsets.UTF_8), TokenClaims.class);
+            if (claims.exp() < Instant.now().getEpochSecond()) {
+                return null;
+            }
+            int minVersion = minVersions.get(claims.id());
+            if (minVersion == REJECTED || claims.ver() < minVersion) {
+                return null;
+            }
+            return new AuthUser(new User(claims.id(), null, claims.email(), "", true, null, claims.roles()));
+        } catch (IllegalArgumentException e) {
+            log.debug("Malformed access token: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    // rejects tokens below the new version of a user
+    public void revoke(int userId, int version) {
+        afterCommit(() -> minVersions.asMap().merge(userId, version,
+                (current, stored) -> current == REJECTED ? stored : Math.max(current + 1, stored)));
+    }
+
+    // rejects every token of a deleted user
+    public void revoke(int userId) {
+        afterCommit(() -> minVersions.put(userId, REJECTED));
+    }
+
+    private Integer loadMinVersion(int userId) {
+        return userRepository.findById(userId)
+                .filter(User::isEnabled)
+                .map(User::getTokenVersion)
+                .orElse(REJECTED);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private byte[] sign(String payload) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(payload.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(HMAC_ALGORITHM + " is not available", e);
+        }
+    }
+
+    record TokenClaims(int id, String email, Set<Role> roles, int ver, long exp) {
+    }
+}
@@ -0,0 +1,41 @@
+package ru.develop.restaurantvoting.app.config;
+
+import lombok.AllArgsConstructor;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import ru.develop.restaurantvoting.app.AuthCache;
+import ru.develop.restaurantvoting.app.AuthUser;
+
+@AllArgsConstructor
+class CachingAuthenticationProvider implements AuthenticationProvider {
+    private final AuthenticationProvider delegate;
+    private final AuthCache authCache;
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        String email = authentication.getName();
+        Object credentials = authentication.getCredentials();
+        if (email == null || !(credentials instanceof String password)) {
+            return delegate.authenticate(authentication);
+        }
+        AuthUser cached = authCache.get(email, password);
+        if (cached != null) {
+            UsernamePasswordAuthenticationToken result =
+                    UsernamePasswordAuthenticationToken.authenticated(cached, null, cached.getAuthorities());
+            result.setDetails(authentication.getDetails());
+            return result;
+        }
+        Authentication result = delegate.authenticate(authentication);
+        if (result != null && result.getPrincipal() instanceof AuthUser authUser) {
+            authCache.put(email, password, authUser);
+        }
+        return result;
+    }
+
+    @Override
+    public boolean supports(Class<?> authentication) {
+        return delegate.supports(authentication);
+    }
+}
@@ -0,0 +1,112 @@
+package ru.develop.restaurantvoting.app.config;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.cache.autoconfigure.CacheManagerCustomizer;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import ru.develop.restaurantvoting.common.util.TimeProvider;
+import ru.develop.restaurantvoting.restaurant.service.MenuJsonService;
+import ru.develop.restaurantvoting.restaurant.service.RestaurantService;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+@Configuration
+@EnableScheduling
+@Slf4j
+public class MenuCacheConfig {
+    public static final String MENUS_CACHE = "menus";
+    public static final String MENU_JSON_CACHE = "menuJson";
+
+    @Bean
+    CacheManagerCustomizer<CaffeineCacheManager> menuCacheCustomizer(
+            TimeProvider timeProvider,
+            ObjectProvider<RestaurantService> restaurantService,
+            ObjectProvider<MenuJsonService> menuJsonService,
+            @Qualifier("applicationTaskExecutor") Executor refreshExecutor,
+            @Value("${app.menu-cache.max-size:1000}") long maxSize,
+            @Value("${app.menu-cache.current-ttl:5m}") Duration currentTtl,
+            @Value("${app.menu-cache.past-ttl:24h}") Duration pastTtl,
+            @Value("${app.menu-cache.refresh-after:4m}") Duration refreshAfter) {
+        log.info("Menu cache: current/future dates {}, past dates {}, refresh ahead after {}", currentTtl, pastTtl, refreshAfter);
+        MenuExpiry expiry = new MenuExpiry(timeProvider, currentTtl, pastTtl);
+        // services are looked up lazily: the cache manager is built before the repositories they depend on
+        return cacheManager -> {
+            cacheManager.registerCustomCache(MENUS_CACHE, menuCache(maxSize, expiry, refreshAfter, refreshExecutor,
+                    new MenuLoader(timeProvider, date -> restaurantService.getObject().loadRestaurantsWithMenuByDate(date))));
+            cacheManager.registerCustomCache(MENU_JSON_CACHE, menuCache(maxSize, expiry, refreshAfter, refreshExecutor,
+                    new MenuLoader(timeProvider, date -> menuJsonService.getObject().loadMenuJsonByDate(date))));
+        };
+    }
+
+    private static LoadingCache<Object, Object> menuCache(long maxSize, MenuExpiry expiry, Duration refreshAfter,
+                                                          Executor refreshExecutor, MenuLoader loader) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(expiry)
+                .refreshAfterWrite(refreshAfter)
+                .executor(refreshExecutor)
+                .recordStats()
+                .build(loader);
+    }
+
+    /**
+     * Reloads a date read after {@code refresh-after} in the background; readers keep getting the old menu meanwhile.
+     * Past menus only change through admin edits, which evict them, so they are kept as they are.
+     */
+    record MenuLoader(TimeProvider timeProvider, Function<LocalDate, Object> loader) implements CacheLoader<Object, Object> {
+
+        @Override
+        public Object load(Object key) {
+            return loader.apply((LocalDate) key);
+        }
+
+        @Override
+        public Object reload(Object key, Object oldValue) {
+            return ((LocalDate) key).isBefore(timeProvider.getCurrentDate()) ? oldValue : load(key);
+        }
+    }
+
+    record MenuExpiry(TimeProvider timeProvider, Duration currentTtl, Duration pastTtl) implements Expiry<Object, Object> {
+
+        @Override
+        public long expireAfterCreate(Object key, Object value, long currentTime) {
+            return ttl(key).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(Object key, Object value, long currentTime, long currentDuration) {
+            return ttl(key).toNanos();
+        }
+
+        @Override
+        public long expireAfterRead(Object key, Object value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        private Duration ttl(Object key) {
+            if (!(key instanceof LocalDate date)) {
+                return currentTtl;
+            }
+            LocalDateTime now = timeProvider.getCurrentDateTime();
+            if (date.isBefore(now.toLocalDate())) {
+                return pastTtl;
+            }
+            // a menu warmed up ahead of its day must survive until that day starts
+            Duration untilDayStarts = Duration.between(now, date.atStartOfDay());
+            return untilDayStarts.isNegative() ? currentTtl : untilDayStarts.plus(currentTtl);
+        }
+    }
+}
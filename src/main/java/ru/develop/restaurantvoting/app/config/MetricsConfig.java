@@ -0,0 +1,18 @@
+package ru.develop.restaurantvoting.app.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+    public static final String SERVICE_TIMER = "app.service";
+    public static final String VOTES_COUNTER = "app.votes";
+
+    // picks up @Timed on the service classes; controllers are timed by the http.server.requests observation
+    @Bean
+    TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+}
@@ -5,6 +5,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
@@ -15,7 +17,10 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.factory.PasswordEncoderFactories;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
+import ru.develop.restaurantvoting.app.AuthCache;
 import ru.develop.restaurantvoting.app.AuthUser;
+import ru.develop.restaurantvoting.app.TokenService;
 import ru.develop.restaurantvoting.user.model.Role;
 import ru.develop.restaurantvoting.user.model.User;
 import ru.develop.restaurantvoting.user.repository.UserRepository;
@@ -32,6 +37,8 @@ public class SecurityConfig {
     public static final PasswordEncoder PASSWORD_ENCODER = PasswordEncoderFactories.createDelegatingPasswordEncoder();
 
     private final UserRepository userRepository;
+    private final AuthCache authCache;
+    private final TokenService tokenService;
 
     @Bean
     PasswordEncoder passwordEncoder() {
@@ -48,6 +55,13 @@ public class SecurityConfig {
         };
     }
 
+    @Bean
+    AuthenticationProvider authenticationProvider() {
+        DaoAuthenticationProvider daoProvider = new DaoAuthenticationProvider(userDetailsService());
+        daoProvider.setPasswordEncoder(PASSWORD_ENCODER);
+        return new CachingAuthenticationProvider(daoProvider, authCache);
+    }
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http.securityMatcher("/api/**").authorizeHttpRequests(authz ->
@@ -56,6 +70,7 @@ public class SecurityConfig {
                                 .requestMatchers("/", "/v3/api-docs/**", "/swagger-ui.html", "/swagger-ui/**").permitAll()
                                 .requestMatchers("/api/**").authenticated())
                 .httpBasic(withDefaults())
+                .addFilterBefore(new BearerTokenFilter(tokenService), BasicAuthenticationFilter.class)
                 .sessionManagement(smc -> smc.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .csrf(AbstractHttpConfigurer::disable);
         return http.build();
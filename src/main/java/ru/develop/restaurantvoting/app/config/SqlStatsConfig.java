@@ -0,0 +1,43 @@
+package ru.develop.restaurantvoting.app.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import ru.develop.restaurantvoting.app.SqlStatsRecorder;
+import ru.develop.restaurantvoting.common.sql.SqlStatsDataSource;
+
+import javax.sql.DataSource;
+
+@Configuration
+@ConditionalOnProperty(name = "app.sql-stats.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class SqlStatsConfig implements WebMvcConfigurer {
+
+    @Bean
+    static BeanPostProcessor sqlStatsDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof SqlStatsDataSource)) {
+                    log.info("Record per-request SQL statistics of data source '{}'", beanName);
+                    return new SqlStatsDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    SqlStatsRecorder sqlStatsRecorder() {
+        return new SqlStatsRecorder();
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(sqlStatsRecorder()).addPathPatterns("/api/**");
+    }
+}
@@ -0,0 +1,55 @@
+package ru.develop.restaurantvoting.app.web;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ru.develop.restaurantvoting.app.AuthCache;
+import ru.develop.restaurantvoting.app.SqlStatsRecorder;
+import ru.develop.restaurantvoting.app.config.EntityCacheConfig;
+import ru.develop.restaurantvoting.common.to.CacheStatsTo;
+import ru.develop.restaurantvoting.common.to.SqlStatsTo;
+
+import javax.cache.CacheManager;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping(value = AdminStatsController.REST_URL, produces = MediaType.APPLICATION_JSON_VALUE)
+@Slf4j
+@AllArgsConstructor
+public class AdminStatsController {
+    static final String REST_URL = "/api/admin/stats";
+
+    private final AuthCache authCache;
+    private final CacheManager entityCacheManager;
+    private final ObjectProvider<SqlStatsRecorder> sqlStatsRecorder;
+
+    @GetMapping("/auth-cache")
+    public CacheStatsTo getAuthCacheStats() {
+        log.info("getAuthCacheStats");
+        return CacheStatsTo.of(authCache.stats(), authCache.size());
+    }
+
+    @GetMapping("/entity-cache")
+    public Map<String, CacheStatsTo> getEntityCacheStats() {
+        log.info("getEntityCacheStats");
+        Map<String, CacheStatsTo> stats = new LinkedHashMap<>();
+        for (String region : EntityCacheConfig.REGIONS) {
+            Cache<?, ?> cache = entityCacheManager.getCache(region).unwrap(Cache.class);
+            stats.put(region, CacheStatsTo.of(cache.stats(), cache.estimatedSize()));
+        }
+        return stats;
+    }
+
+    @GetMapping("/sql")
+    public Map<String, SqlStatsTo> getSqlStats() {
+        log.info("getSqlStats");
+        SqlStatsRecorder recorder = sqlStatsRecorder.getIfAvailable();
+        return recorder != null ? recorder.getStats() : Map.of();
+    }
+}
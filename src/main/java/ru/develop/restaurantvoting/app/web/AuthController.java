@@ -0,0 +1,30 @@
+package ru.develop.restaurantvoting.app.web;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ru.develop.restaurantvoting.app.AuthUser;
+import ru.develop.restaurantvoting.app.TokenService;
+import ru.develop.restaurantvoting.common.to.TokenTo;
+
+@RestController
+@RequestMapping(value = AuthController.REST_URL, produces = MediaType.APPLICATION_JSON_VALUE)
+@Slf4j
+@AllArgsConstructor
+public class AuthController {
+    static final String REST_URL = "/api/auth";
+    public static final String LOGIN_URL = REST_URL + "/login";
+
+    private final TokenService tokenService;
+
+    // Basic credentials only: BearerTokenFilter skips this URL, so a token cannot be traded for a fresh one
+    @PostMapping("/login")
+    public TokenTo login(@AuthenticationPrincipal AuthUser authUser) {
+        log.info("login {}", authUser);
+        return new TokenTo(tokenService.issue(authUser.id()), "Bearer", tokenService.getTtl().toSeconds());
+    }
+}
@@ -1,8 +1,6 @@
 package ru.develop.restaurantvoting.common;
 
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Modifying;
-import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.NoRepositoryBean;
 import org.springframework.transaction.annotation.Transactional;
 import ru.develop.restaurantvoting.common.error.NotFoundException;
@@ -10,16 +8,11 @@ import ru.develop.restaurantvoting.common.error.NotFoundException;
 @NoRepositoryBean
 public interface BaseRepository<T> extends JpaRepository<T, Integer> {
 
+    // removes through the persistence context: a bulk DELETE leaves read-write entity cache entries
+    // readable until the transaction completes
     @Transactional
-    @Modifying
-    @Query("DELETE FROM #{#entityName} e WHERE e.id=:id")
-    int delete(int id);
-
-    @SuppressWarnings("all")
     default void deleteExisted(int id) {
-        if (delete(id) == 0) {
-            throw new NotFoundException("Entity with id=" + id + " not found");
-        }
+        delete(getExisted(id));
     }
 
     default T getExisted(int id) {
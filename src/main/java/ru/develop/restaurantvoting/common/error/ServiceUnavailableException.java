@@ -0,0 +1,9 @@
+package ru.develop.restaurantvoting.common.error;
+
+import static ru.develop.restaurantvoting.common.error.ErrorType.UNAVAILABLE;
+
+public class ServiceUnavailableException extends AppException {
+    public ServiceUnavailableException(String msg) {
+        super(msg, UNAVAILABLE);
+    }
+}
@@ -0,0 +1,73 @@
+package ru.develop.restaurantvoting.common.sql;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * JDBC work done by the current thread while this scope is open. Scopes nest: a statement counts
+ * towards every open scope, so a test can measure a request that the web layer measures as well.
+ */
+public final class SqlStats {
+    private static final ThreadLocal<Deque<SqlStats>> OPEN = new ThreadLocal<>();
+
+    private int statements;
+    private long rows;
+    private long jdbcNanos;
+
+    private SqlStats() {
+    }
+
+    public static SqlStats open() {
+        Deque<SqlStats> open = OPEN.get();
+        if (open == null) {
+            open = new ArrayDeque<>();
+            OPEN.set(open);
+        }
+        SqlStats stats = new SqlStats();
+        open.push(stats);
+        return stats;
+    }
+
+    public void close() {
+        Deque<SqlStats> open = OPEN.get();
+        if (open != null && open.removeFirstOccurrence(this) && open.isEmpty()) {
+            OPEN.remove();
+        }
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getJdbcNanos() {
+        return jdbcNanos;
+    }
+
+    static void statement(long nanos) {
+        Deque<SqlStats> open = OPEN.get();
+        if (open != null) {
+            for (SqlStats stats : open) {
+                stats.statements++;
+                stats.jdbcNanos += nanos;
+            }
+        }
+    }
+
+    static void row() {
+        Deque<SqlStats> open = OPEN.get();
+        if (open != null) {
+            for (SqlStats stats : open) {
+                stats.rows++;
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return statements + " statements, " + rows + " rows, " + jdbcNanos / 1_000_000 + " ms JDBC";
+    }
+}
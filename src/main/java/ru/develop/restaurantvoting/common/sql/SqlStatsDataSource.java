@@ -0,0 +1,69 @@
+package ru.develop.restaurantvoting.common.sql;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.*;
+import java.util.Set;
+
+/**
+ * Reports every executed statement, its JDBC time and every fetched row to the open {@link SqlStats} scopes.
+ */
+public class SqlStatsDataSource extends DelegatingDataSource {
+    private static final Set<Class<?>> WRAPPED_TYPES =
+            Set.of(Statement.class, PreparedStatement.class, CallableStatement.class, ResultSet.class);
+
+    public SqlStatsDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(Connection.class, super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(Connection.class, super.getConnection(username, password));
+    }
+
+    private static <T> T wrap(Class<T> type, T target) {
+        return type.cast(Proxy.newProxyInstance(SqlStatsDataSource.class.getClassLoader(),
+                new Class<?>[]{type}, new Recorder(target)));
+    }
+
+    private record Recorder(Object target) implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getName().equals("equals") && method.getParameterCount() == 1) {
+                return proxy == args[0];
+            }
+            boolean execution = target instanceof Statement && method.getName().startsWith("execute");
+            long start = execution ? System.nanoTime() : 0;
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            } finally {
+                if (execution) {
+                    SqlStats.statement(System.nanoTime() - start);
+                }
+            }
+            if (target instanceof ResultSet && result == Boolean.TRUE && method.getName().equals("next")) {
+                SqlStats.row();
+            }
+            Class<?> returnType = method.getReturnType();
+            return result != null && WRAPPED_TYPES.contains(returnType) ? wrapResult(returnType, result) : result;
+        }
+
+        private static <T> T wrapResult(Class<T> type, Object result) {
+            return wrap(type, type.cast(result));
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package ru.develop.restaurantvoting.common.to;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.Value;
+
+@Value
+public class CacheStatsTo {
+    long size;
+    long hitCount;
+    long missCount;
+    double hitRate;
+    long evictionCount;
+
+    public static CacheStatsTo of(CacheStats stats, long size) {
+        return new CacheStatsTo(size, stats.hitCount(), stats.missCount(), stats.hitRate(), stats.evictionCount());
+    }
+}
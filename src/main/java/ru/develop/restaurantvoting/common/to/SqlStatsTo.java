@@ -0,0 +1,12 @@
+package ru.develop.restaurantvoting.common.to;
+
+import lombok.Value;
+
+@Value
+public class SqlStatsTo {
+    long requests;
+    long statements;
+    int maxStatements;
+    long rows;
+    long jdbcMillis;
+}
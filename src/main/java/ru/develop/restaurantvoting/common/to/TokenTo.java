@@ -0,0 +1,10 @@
+package ru.develop.restaurantvoting.common.to;
+
+import lombok.Value;
+
+@Value
+public class TokenTo {
+    String accessToken;
+    String tokenType;
+    long expiresIn;
+}
@@ -42,6 +42,14 @@ public class JsonUtil {
         }
     }
 
+    public static <T> byte[] writeBytes(T obj) {
+        try {
+            return mapper.writeValueAsBytes(obj);
+        } catch (JacksonException e) {
+            throw new IllegalStateException("Invalid write to JSON:\n'" + obj + "'", e);
+        }
+    }
+
     public static <T> String writeAdditionProps(T obj, String addName, Object addValue) {
         return writeAdditionProps(obj, Map.of(addName, addValue));
     }
@@ -18,6 +18,12 @@ public class TimeProvider {
         return LocalDateTime.now();
     }
 
+    // votes dated before this are past their deadline
+    public LocalDate getFirstOpenVoteDate() {
+        LocalDateTime now = getCurrentDateTime();
+        return now.toLocalTime().isBefore(VOTE_DEADLINE) ? now.toLocalDate() : now.toLocalDate().plusDays(1);
+    }
+
     public boolean canChangeVote(LocalDate voteDate) {
         LocalDateTime now = getCurrentDateTime();
         return voteDate.equals(now.toLocalDate()) &&
@@ -8,6 +8,17 @@ import org.jsoup.safety.Safelist;
 public class NoHtmlValidator implements ConstraintValidator<NoHtml, String> {
     @Override
     public boolean isValid(String value, ConstraintValidatorContext ctx) {
-        return value == null || Jsoup.isValid(value, Safelist.none());
+        return value == null || isPlainText(value) || Jsoup.isValid(value, Safelist.none());
     }
-}
\ No newline at end of file
+
+    // Jsoup can only reject text through a tag, a character reference or a NUL (a parse error)
+    static boolean isPlainText(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '<' || c == '&' || c == '\0') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,6 @@
+package ru.develop.restaurantvoting.restaurant.model;
+
+public enum ChangedEntity {
+    RESTAURANT,
+    MENU_ITEM
+}
@@ -0,0 +1,34 @@
+package ru.develop.restaurantvoting.restaurant.model;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import ru.develop.restaurantvoting.common.model.BaseEntity;
+
+// one row per restaurant or menu item, moved to the version of its latest change; deletions stay as tombstones
+@Entity
+@Table(name = "menu_changes", uniqueConstraints = {
+        @UniqueConstraint(columnNames = {"entity_type", "entity_id"}, name = "menu_changes_unique_entity_idx")
+}, indexes = {
+        @Index(columnList = "version", name = "menu_changes_version_idx")
+})
+@Getter
+@Setter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class MenuChange extends BaseEntity {
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type", nullable = false)
+    private ChangedEntity entityType;
+
+    @Column(name = "entity_id", nullable = false)
+    private int entityId;
+
+    @Column(name = "version", nullable = false)
+    private long version;
+
+    @Column(name = "deleted", nullable = false)
+    private boolean deleted;
+}
@@ -15,8 +15,10 @@ import java.time.LocalDate;
 
 @Entity
 @Table(name = "menu_items", uniqueConstraints = {
-        @UniqueConstraint(columnNames = {"restaurant_id", "menu_date", "name"},
+        @UniqueConstraint(columnNames = {"restaurant_id", "menu_date", "name_key"},
                 name = "menu_items_unique_restaurant_date_name_idx")
+}, indexes = {
+        @Index(columnList = "menu_date", name = "menu_items_date_idx")
 })
 @Getter
 @Setter
@@ -39,6 +41,15 @@ public class MenuItem extends NamedEntity {
     @Positive
     private Integer price;
 
+    // computed by the database from name, the indexed key for case-insensitive lookups
+    @Column(name = "name_key", insertable = false, updatable = false,
+            columnDefinition = "VARCHAR(255) GENERATED ALWAYS AS (LOWER(name))")
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @JsonIgnore
+    @ToString.Exclude
+    private String nameKey;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "restaurant_id", nullable = false)
     @JsonIgnore
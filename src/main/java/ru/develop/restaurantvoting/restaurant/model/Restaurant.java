@@ -1,5 +1,6 @@
 package ru.develop.restaurantvoting.restaurant.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
@@ -7,8 +8,11 @@ import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
+import ru.develop.restaurantvoting.app.config.EntityCacheConfig;
 import ru.develop.restaurantvoting.common.model.NamedEntity;
 import ru.develop.restaurantvoting.common.validation.NoHtml;
 
@@ -16,8 +20,9 @@ import java.util.List;
 
 @Entity
 @Table(name = "restaurants", uniqueConstraints = {
-        @UniqueConstraint(columnNames = {"name"}, name = "restaurants_unique_name_idx")
+        @UniqueConstraint(columnNames = {"name_key"}, name = "restaurants_unique_name_key_idx")
 })
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = EntityCacheConfig.RESTAURANTS_REGION)
 @Getter
 @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
@@ -29,6 +34,14 @@ public class Restaurant extends NamedEntity {
     @NoHtml
     private String address;
 
+    // computed by the database from name, the indexed key for case-insensitive lookups
+    @Column(name = "name_key", insertable = false, updatable = false,
+            columnDefinition = "VARCHAR(255) GENERATED ALWAYS AS (LOWER(name))")
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @JsonIgnore
+    private String nameKey;
+
     @OneToMany(fetch = FetchType.LAZY, mappedBy = "restaurant")
     @OrderBy("menuDate DESC")
     @OnDelete(action = OnDeleteAction.CASCADE)
@@ -14,12 +14,17 @@ import java.time.LocalDate;
 
 @Entity
 @Table(name = "votes", uniqueConstraints = {
-        @UniqueConstraint(columnNames = {"user_id", "vote_date"}, name = "votes_unique_user_date_idx")
+        @UniqueConstraint(columnNames = {"user_id", "vote_date"}, name = Vote.VOTES_UNIQUE_USER_DATE_IDX)
+}, indexes = {
+        @Index(columnList = "vote_date", name = "votes_date_idx"),
+        @Index(columnList = "restaurant_id, vote_date", name = "votes_restaurant_date_idx")
 })
 @Getter
 @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class Vote extends BaseEntity {
+    public static final String VOTES_UNIQUE_USER_DATE_IDX = "votes_unique_user_date_idx";
+    public static final String VOTES_RESTAURANT_FK = "votes_restaurant_fk";
 
     @Column(name = "vote_date", nullable = false)
     @NotNull
@@ -31,7 +36,7 @@ public class Vote extends BaseEntity {
     private User user;
 
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "restaurant_id", nullable = false)
+    @JoinColumn(name = "restaurant_id", nullable = false, foreignKey = @ForeignKey(name = VOTES_RESTAURANT_FK))
     private Restaurant restaurant;
 
     public Vote(Integer id, LocalDate voteDate) {
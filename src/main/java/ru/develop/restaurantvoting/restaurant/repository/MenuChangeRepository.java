@@ -0,0 +1,18 @@
+package ru.develop.restaurantvoting.restaurant.repository;
+
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+import ru.develop.restaurantvoting.common.BaseRepository;
+import ru.develop.restaurantvoting.restaurant.model.MenuChange;
+
+import java.util.List;
+
+@Transactional(readOnly = true)
+public interface MenuChangeRepository extends BaseRepository<MenuChange> {
+
+    @Query("SELECT c FROM MenuChange c WHERE c.version > :since AND c.version <= :until ORDER BY c.version")
+    List<MenuChange> getBetween(long since, long until);
+
+    @Query("SELECT COALESCE(MAX(c.version), 0) FROM MenuChange c")
+    long getLastVersion();
+}
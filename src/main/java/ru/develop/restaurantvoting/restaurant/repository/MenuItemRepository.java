@@ -1,11 +1,13 @@
 package ru.develop.restaurantvoting.restaurant.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.transaction.annotation.Transactional;
 import ru.develop.restaurantvoting.common.BaseRepository;
 import ru.develop.restaurantvoting.common.error.NotFoundException;
 import ru.develop.restaurantvoting.restaurant.model.MenuItem;
+import ru.develop.restaurantvoting.restaurant.to.MenuItemTo;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -20,10 +22,32 @@ public interface MenuItemRepository extends BaseRepository<MenuItem> {
     @Query("SELECT m FROM MenuItem m WHERE m.restaurant.id = :restaurantId AND m.menuDate = :date ORDER BY m.id")
     List<MenuItem> getByRestaurantAndDate(int restaurantId, LocalDate date);
 
+    @Query("SELECT new ru.develop.restaurantvoting.restaurant.to.MenuItemTo(m.id, m.menuDate, m.name, m.description, m.price) " +
+            "FROM MenuItem m WHERE m.restaurant.id = :restaurantId ORDER BY m.menuDate DESC")
+    List<MenuItemTo> getTosByRestaurant(int restaurantId);
+
+    @Query("SELECT new ru.develop.restaurantvoting.restaurant.to.MenuItemTo(m.id, m.menuDate, m.name, m.description, m.price) " +
+            "FROM MenuItem m WHERE m.restaurant.id = :restaurantId AND m.menuDate = :date ORDER BY m.id")
+    List<MenuItemTo> getTosByRestaurantAndDate(int restaurantId, LocalDate date);
+
+    @Query("SELECT m.id FROM MenuItem m WHERE m.restaurant.id = :restaurantId AND m.menuDate = :date")
+    List<Integer> getIdsByRestaurantAndDate(int restaurantId, LocalDate date);
+
+    @Query("SELECT DISTINCT m.menuDate FROM MenuItem m WHERE m.restaurant.id = :restaurantId")
+    List<LocalDate> getMenuDates(int restaurantId);
+
+    @Query("SELECT DISTINCT m.menuDate FROM MenuItem m WHERE m.restaurant.id = :restaurantId " +
+            "AND m.menuDate BETWEEN :from AND :to ORDER BY m.menuDate DESC")
+    List<LocalDate> getMenuDates(int restaurantId, LocalDate from, LocalDate to, Limit limit);
+
+    @Query("SELECT m FROM MenuItem m WHERE m.restaurant.id = :restaurantId " +
+            "AND m.menuDate BETWEEN :from AND :to ORDER BY m.menuDate DESC, m.id")
+    List<MenuItem> getByRestaurantBetween(int restaurantId, LocalDate from, LocalDate to);
+
     @Query("SELECT m FROM MenuItem m WHERE m.id = :id AND m.restaurant.id = :restaurantId")
     Optional<MenuItem> get(int restaurantId, int id);
 
-    @Query("SELECT m FROM MenuItem m WHERE m.restaurant.id = :restaurantId AND m.menuDate = :date AND LOWER(m.name) = LOWER(:name)")
+    @Query("SELECT m FROM MenuItem m WHERE m.restaurant.id = :restaurantId AND m.menuDate = :date AND m.nameKey = LOWER(:name)")
     Optional<MenuItem> findByRestaurantAndDateAndNameIgnoreCase(int restaurantId, LocalDate date, String name);
 
     @Transactional
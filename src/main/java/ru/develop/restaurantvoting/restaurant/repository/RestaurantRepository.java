@@ -4,23 +4,31 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.transaction.annotation.Transactional;
 import ru.develop.restaurantvoting.common.BaseRepository;
 import ru.develop.restaurantvoting.restaurant.model.Restaurant;
+import ru.develop.restaurantvoting.restaurant.to.RestaurantMenuItemTo;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Transactional(readOnly = true)
 public interface RestaurantRepository extends BaseRepository<Restaurant> {
 
-    @Query("SELECT r FROM Restaurant r LEFT JOIN FETCH r.menuItems m WHERE m.menuDate = :date ORDER BY r.name")
-    List<Restaurant> getAllWithMenuByDate(LocalDate date);
+    @Query("SELECT new ru.develop.restaurantvoting.restaurant.to.RestaurantMenuItemTo(r.id, r.name, m.id, m.menuDate, m.name, m.description, m.price) " +
+            "FROM MenuItem m JOIN m.restaurant r WHERE m.menuDate = :date ORDER BY r.name, m.id")
+    List<RestaurantMenuItemTo> getMenuItemTosByDate(LocalDate date);
 
-    @Query("SELECT r FROM Restaurant r LEFT JOIN FETCH r.menuItems WHERE r.id = :id")
-    Optional<Restaurant> getWithMenu(int id);
+    @Query("SELECT new ru.develop.restaurantvoting.restaurant.to.RestaurantMenuItemTo(r.id, r.name, m.id, m.menuDate, m.name, m.description, m.price) " +
+            "FROM MenuItem m JOIN m.restaurant r WHERE m.menuDate >= :from ORDER BY m.menuDate, r.name, m.id")
+    List<RestaurantMenuItemTo> getMenuItemTosFrom(LocalDate from);
 
-    @Query("SELECT r FROM Restaurant r LEFT JOIN FETCH r.menuItems m WHERE r.id = :id AND m.menuDate = :date")
-    Optional<Restaurant> getWithMenuByDate(int id, LocalDate date);
+    @Query("SELECT new ru.develop.restaurantvoting.restaurant.to.RestaurantMenuItemTo(r.id, r.name, m.id, m.menuDate, m.name, m.description, m.price) " +
+            "FROM MenuItem m JOIN m.restaurant r WHERE m.id IN :ids AND m.menuDate >= :from ORDER BY m.menuDate, r.name, m.id")
+    List<RestaurantMenuItemTo> getMenuItemTosFrom(Collection<Integer> ids, LocalDate from);
 
-    @Query("SELECT r FROM Restaurant r WHERE LOWER(r.name) = LOWER(:name)")
+    @Query("SELECT r FROM Restaurant r WHERE r.id IN :ids ORDER BY r.name")
+    List<Restaurant> getAllByIds(Collection<Integer> ids);
+
+    @Query("SELECT r FROM Restaurant r WHERE r.nameKey = LOWER(:name)")
     Optional<Restaurant> findByNameIgnoreCase(String name);
 }
\ No newline at end of file
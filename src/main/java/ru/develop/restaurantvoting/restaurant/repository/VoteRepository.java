@@ -1,11 +1,15 @@
 package ru.develop.restaurantvoting.restaurant.repository;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.transaction.annotation.Transactional;
 import ru.develop.restaurantvoting.common.BaseRepository;
 import ru.develop.restaurantvoting.common.error.DataConflictException;
 import ru.develop.restaurantvoting.common.error.NotFoundException;
+import ru.develop.restaurantvoting.restaurant.model.Restaurant;
 import ru.develop.restaurantvoting.restaurant.model.Vote;
+import ru.develop.restaurantvoting.restaurant.to.VoteTo;
 
 import java.time.LocalDate;
 import java.util.Optional;
@@ -19,6 +23,26 @@ public interface VoteRepository extends BaseRepository<Vote> {
     @Query("SELECT v FROM Vote v JOIN FETCH v.restaurant WHERE v.user.id = :userId ORDER BY v.voteDate DESC")
     java.util.List<Vote> getAllByUser(int userId);
 
+    @Query("SELECT new ru.develop.restaurantvoting.restaurant.to.VoteTo(v.id, r.id, r.name, v.voteDate) " +
+            "FROM Vote v JOIN v.restaurant r WHERE v.user.id = :userId ORDER BY v.voteDate DESC, v.id")
+    java.util.List<VoteTo> getTosByUser(int userId, Limit limit);
+
+    @Query("SELECT new ru.develop.restaurantvoting.restaurant.to.VoteTo(v.id, r.id, r.name, v.voteDate) " +
+            "FROM Vote v JOIN v.restaurant r WHERE v.user.id = :userId AND v.voteDate < :before ORDER BY v.voteDate DESC, v.id")
+    java.util.List<VoteTo> getTosByUserBefore(int userId, LocalDate before, Limit limit);
+
+    @Query("SELECT v.user.id, v.restaurant.id FROM Vote v WHERE v.voteDate = :date")
+    java.util.List<Object[]> getChoicesByDate(LocalDate date);
+
+    @Query("SELECT COUNT(v) > 0 FROM Vote v WHERE v.user.id = :userId AND v.voteDate = :date")
+    boolean existsByUserAndDate(int userId, LocalDate date);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Vote v SET v.restaurant = :restaurant " +
+            "WHERE v.user.id = :userId AND v.voteDate = :date AND v.voteDate >= :firstOpenDate")
+    int updateRestaurant(int userId, LocalDate date, Restaurant restaurant, LocalDate firstOpenDate);
+
     @Query("SELECT v FROM Vote v WHERE v.id = :id and v.user.id = :userId")
     Optional<Vote> get(int userId, int id);
 
@@ -0,0 +1,159 @@
+package ru.develop.restaurantvoting.restaurant.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.develop.restaurantvoting.common.util.TimeProvider;
+import ru.develop.restaurantvoting.restaurant.repository.RestaurantRepository;
+import ru.develop.restaurantvoting.restaurant.service.MenuJsonService.MenuJson;
+import ru.develop.restaurantvoting.restaurant.to.RestaurantDayMenuTo;
+import ru.develop.restaurantvoting.restaurant.util.RestaurantsUtil;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Today's and tomorrow's restaurants with menus, fully materialized. Readers only dereference a volatile field;
+ * committed menu changes and the date rollover build a new snapshot and swap it in.
+ */
+@Component
+@Slf4j
+public class DailyMenuSnapshot {
+    private final RestaurantRepository restaurantRepository;
+    private final TimeProvider timeProvider;
+    private final TransactionTemplate transactionTemplate;
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile Snapshot snapshot;
+
+    public DailyMenuSnapshot(RestaurantRepository restaurantRepository, TimeProvider timeProvider,
+                             PlatformTransactionManager transactionManager) {
+        this.restaurantRepository = restaurantRepository;
+        this.timeProvider = timeProvider;
+        // a fresh read-only transaction never sees the uncommitted rows of the caller
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        transactionTemplate.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        LocalDate today = timeProvider.getCurrentDate();
+        lock.lock();
+        try {
+            snapshot = new Snapshot(load(today), load(today.plusDays(1)));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public MenuJson getMenuJson() {
+        return today().json();
+    }
+
+    public Optional<RestaurantDayMenuTo> getRestaurantWithMenu(int id) {
+        return today().get(id);
+    }
+
+    // null for a restaurant without a menu today
+    public String getRestaurantName(int id) {
+        return getRestaurantWithMenu(id).map(RestaurantDayMenuTo::name).orElse(null);
+    }
+
+    public void refresh(LocalDate... dates) {
+        refresh(List.of(dates));
+    }
+
+    public void refresh(Collection<LocalDate> dates) {
+        if (dates.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            refreshNow(dates);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                refreshNow(dates);
+            }
+        });
+    }
+
+    // runs after the caller's commit: a failed load must not fail the write, so the snapshot is dropped instead
+    // and the next reader rebuilds it
+    private void refreshNow(Collection<LocalDate> dates) {
+        lock.lock();
+        try {
+            Snapshot current = snapshot;
+            if (current == null) {
+                return;
+            }
+            Day today = dates.contains(current.today().date()) ? load(current.today().date()) : current.today();
+            Day tomorrow = dates.contains(current.tomorrow().date()) ? load(current.tomorrow().date()) : current.tomorrow();
+            if (today != current.today() || tomorrow != current.tomorrow()) {
+                snapshot = new Snapshot(today, tomorrow);
+            }
+        } catch (RuntimeException e) {
+            log.error("Menu snapshot refresh for {} failed, rebuilding on the next read", dates, e);
+            snapshot = null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Day today() {
+        Snapshot current = snapshot;
+        LocalDate date = timeProvider.getCurrentDate();
+        return current != null && current.today().date().equals(date) ? current.today() : rollOver(date);
+    }
+
+    // once a day the first reader after midnight promotes tomorrow and loads the day after
+    private Day rollOver(LocalDate date) {
+        lock.lock();
+        try {
+            Snapshot current = snapshot;
+            if (current == null || !current.today().date().equals(date)) {
+                Day today = current != null && current.tomorrow().date().equals(date) ? current.tomorrow() : load(date);
+                current = new Snapshot(today, load(date.plusDays(1)));
+                snapshot = current;
+            }
+            return current.today();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Day load(LocalDate date) {
+        RestaurantDayMenuTo[] array = transactionTemplate.execute(status ->
+                RestaurantsUtil.groupWithMenuTos(restaurantRepository.getMenuItemTosByDate(date))).stream()
+                .map(RestaurantsUtil::createDayMenuTo)
+                .toArray(RestaurantDayMenuTo[]::new);
+        Map<Integer, Integer> index = new HashMap<>();
+        for (int i = 0; i < array.length; i++) {
+            index.put(array[i].id(), i);
+        }
+        log.info("Menu snapshot for {} built with {} restaurants", date, array.length);
+        return new Day(date, array, Map.copyOf(index), MenuJson.of(List.of(array)));
+    }
+
+    private record Snapshot(Day today, Day tomorrow) {
+    }
+
+    private record Day(LocalDate date, RestaurantDayMenuTo[] restaurants, Map<Integer, Integer> index, MenuJson json) {
+        Optional<RestaurantDayMenuTo> get(int id) {
+            Integer i = index.get(id);
+            return i == null ? Optional.empty() : Optional.of(restaurants[i]);
+        }
+    }
+}
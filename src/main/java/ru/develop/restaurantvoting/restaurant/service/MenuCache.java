@@ -0,0 +1,52 @@
+package ru.develop.restaurantvoting.restaurant.service;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+import static ru.develop.restaurantvoting.app.config.MenuCacheConfig.MENUS_CACHE;
+import static ru.develop.restaurantvoting.app.config.MenuCacheConfig.MENU_JSON_CACHE;
+
+@Component
+@AllArgsConstructor
+@Slf4j
+public class MenuCache {
+    private final CacheManager cacheManager;
+
+    public void evict(LocalDate... dates) {
+        evict(List.of(dates));
+    }
+
+    public void evict(Collection<LocalDate> dates) {
+        if (dates.isEmpty()) {
+            return;
+        }
+        evictNow(dates);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictNow(dates);
+                }
+            });
+        }
+    }
+
+    private void evictNow(Collection<LocalDate> dates) {
+        log.debug("Evict cached menus for {}", dates);
+        for (String name : List.of(MENUS_CACHE, MENU_JSON_CACHE)) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache != null) {
+                dates.forEach(cache::evict);
+            }
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package ru.develop.restaurantvoting.restaurant.service;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.develop.restaurantvoting.common.util.TimeProvider;
+
+import java.time.LocalDate;
+
+@Component
+@AllArgsConstructor
+@Slf4j
+public class MenuCacheWarmer {
+    private final RestaurantService restaurantService;
+    private final MenuJsonService menuJsonService;
+    private final TimeProvider timeProvider;
+
+    @Scheduled(cron = "${app.menu-cache.warm-cron:0 58 23 * * *}")
+    public void warmUpTomorrow() {
+        LocalDate tomorrow = timeProvider.getCurrentDate().plusDays(1);
+        log.info("Warm up menu cache for {}", tomorrow);
+        restaurantService.refreshRestaurantsWithMenuByDate(tomorrow);
+        menuJsonService.refreshMenuJsonByDate(tomorrow);
+    }
+}
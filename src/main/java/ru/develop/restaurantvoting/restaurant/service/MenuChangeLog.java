@@ -0,0 +1,127 @@
+package ru.develop.restaurantvoting.restaurant.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.develop.restaurantvoting.restaurant.model.ChangedEntity;
+import ru.develop.restaurantvoting.restaurant.model.MenuChange;
+import ru.develop.restaurantvoting.restaurant.repository.MenuChangeRepository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Versions restaurant and menu item writes for delta sync. Versions are handed out in order, but transactions
+ * commit in any order, so {@link #getVersion()} stops below the oldest version still in flight: a client that
+ * has seen a version never misses a change committed later with a lower one.
+ */
+@Component
+@Slf4j
+public class MenuChangeLog {
+    // plain JDBC: a native query through Hibernate would invalidate every second-level cache region
+    static final String MERGE_CHANGE = "MERGE INTO menu_changes (entity_type, entity_id, version, deleted) " +
+            "KEY (entity_type, entity_id) VALUES (?, ?, ?, ?)";
+
+    private final MenuChangeRepository menuChangeRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final NavigableSet<Long> inFlight = new TreeSet<>();
+    private long lastVersion;
+
+    public MenuChangeLog(MenuChangeRepository menuChangeRepository, JdbcTemplate jdbcTemplate) {
+        this.menuChangeRepository = menuChangeRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() {
+        long version = menuChangeRepository.getLastVersion();
+        lock.lock();
+        try {
+            lastVersion = Math.max(lastVersion, version);
+        } finally {
+            lock.unlock();
+        }
+        log.info("Menu change log at version {}", version);
+    }
+
+    public void changed(ChangedEntity entity, int id) {
+        record(entity, List.of(id), false);
+    }
+
+    public void deleted(ChangedEntity entity, int id) {
+        record(entity, List.of(id), true);
+    }
+
+    public void deleted(ChangedEntity entity, Collection<Integer> ids) {
+        record(entity, ids, true);
+    }
+
+    // the latest version below which every change is committed
+    public long getVersion() {
+        lock.lock();
+        try {
+            return inFlight.isEmpty() ? lastVersion : inFlight.first() - 1;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public List<MenuChange> getChanges(long since, long until) {
+        return menuChangeRepository.getBetween(since, until);
+    }
+
+    private void record(ChangedEntity entity, Collection<Integer> ids, boolean deleted) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        long version = nextVersion();
+        boolean transactional = TransactionSynchronizationManager.isSynchronizationActive();
+        if (transactional) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    release(version);
+                }
+            });
+        }
+        try {
+            jdbcTemplate.batchUpdate(MERGE_CHANGE, ids, ids.size(), (ps, id) -> {
+                ps.setString(1, entity.name());
+                ps.setInt(2, id);
+                ps.setLong(3, version);
+                ps.setBoolean(4, deleted);
+            });
+        } finally {
+            if (!transactional) {
+                release(version);
+            }
+        }
+    }
+
+    private long nextVersion() {
+        lock.lock();
+        try {
+            inFlight.add(++lastVersion);
+            return lastVersion;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release(long version) {
+        lock.lock();
+        try {
+            inFlight.remove(version);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -1,36 +1,51 @@
 package ru.develop.restaurantvoting.restaurant.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.develop.restaurantvoting.common.error.DataConflictException;
+import ru.develop.restaurantvoting.restaurant.model.ChangedEntity;
 import ru.develop.restaurantvoting.restaurant.model.MenuItem;
 import ru.develop.restaurantvoting.restaurant.model.Restaurant;
 import ru.develop.restaurantvoting.restaurant.repository.MenuItemRepository;
 import ru.develop.restaurantvoting.restaurant.repository.RestaurantRepository;
+import ru.develop.restaurantvoting.restaurant.to.MenuItemTo;
+import ru.develop.restaurantvoting.restaurant.to.RestaurantMenuItemTo;
 
 import java.time.LocalDate;
 import java.util.List;
 
+import static ru.develop.restaurantvoting.app.config.MetricsConfig.SERVICE_TIMER;
+
 @Service
 @AllArgsConstructor
 @Slf4j
+@Timed(value = SERVICE_TIMER, histogram = true, percentiles = {0.5, 0.99, 0.999})
 public class MenuItemService {
     private final MenuItemRepository menuItemRepository;
     private final RestaurantRepository restaurantRepository;
+    private final MenuCache menuCache;
+    private final MenuSearchIndex menuSearchIndex;
+    private final DailyMenuSnapshot dailyMenuSnapshot;
+    private final MenuChangeLog menuChangeLog;
 
-    public List<MenuItem> getRestaurantMenu(int restaurantId) {
+    public List<MenuItemTo> getRestaurantMenu(int restaurantId) {
         log.info("Get all menu items for restaurant {}", restaurantId);
         restaurantRepository.getExisted(restaurantId);
-        return menuItemRepository.getAllByRestaurant(restaurantId);
+        return menuItemRepository.getTosByRestaurant(restaurantId);
     }
 
-    public List<MenuItem> getMenuByDate(int restaurantId, LocalDate date) {
+    public List<MenuItemTo> getMenuByDate(int restaurantId, LocalDate date) {
         log.info("Get menu items for restaurant {} on date {}", restaurantId, date);
         restaurantRepository.getExisted(restaurantId);
-        return menuItemRepository.getByRestaurantAndDate(restaurantId, date);
+        return menuItemRepository.getTosByRestaurantAndDate(restaurantId, date);
+    }
+
+    public List<RestaurantMenuItemTo> search(LocalDate date, String query, int limit) {
+        log.info("Search menu items for date {} by '{}', limit {}", date, query, limit);
+        return menuSearchIndex.search(date, query, limit);
     }
 
     public MenuItem getMenuItem(int restaurantId, int menuItemId) {
@@ -39,7 +54,6 @@ public class MenuItemService {
     }
 
     @Transactional
-    @CacheEvict(value = "restaurants", allEntries = true)
     public MenuItem createMenuItem(int restaurantId, MenuItem menuItem) {
         log.info("Create menu item for restaurant {}", restaurantId);
         Restaurant restaurant = restaurantRepository.getExisted(restaurantId);
@@ -56,11 +70,15 @@ public class MenuItemService {
             );
         });
 
-        return menuItemRepository.save(menuItem);
+        MenuItem created = menuItemRepository.save(menuItem);
+        menuCache.evict(created.getMenuDate());
+        menuSearchIndex.index(created);
+        dailyMenuSnapshot.refresh(created.getMenuDate());
+        menuChangeLog.changed(ChangedEntity.MENU_ITEM, created.id());
+        return created;
     }
 
     @Transactional
-    @CacheEvict(value = "restaurants", allEntries = true)
     public void updateMenuItem(int restaurantId, int menuItemId, MenuItem menuItem) {
         log.info("Update menu item {} for restaurant {}", menuItemId, restaurantId);
         MenuItem existingItem = menuItemRepository.getBelonged(restaurantId, menuItemId);
@@ -83,22 +101,36 @@ public class MenuItemService {
             });
         }
 
+        LocalDate previousDate = existingItem.getMenuDate();
         menuItem.setId(menuItemId);
         menuItem.setRestaurant(restaurant);
         menuItemRepository.save(menuItem);
+        menuCache.evict(previousDate, menuItem.getMenuDate());
+        menuSearchIndex.remove(previousDate, menuItemId);
+        menuSearchIndex.index(menuItem);
+        dailyMenuSnapshot.refresh(previousDate, menuItem.getMenuDate());
+        menuChangeLog.changed(ChangedEntity.MENU_ITEM, menuItemId);
     }
 
     @Transactional
-    @CacheEvict(value = "restaurants", allEntries = true)
     public void deleteMenuItem(int restaurantId, int menuItemId) {
         log.info("Delete menu item {} for restaurant {}", menuItemId, restaurantId);
+        MenuItem menuItem = menuItemRepository.getBelonged(restaurantId, menuItemId);
         menuItemRepository.deleteExisted(menuItemId);
+        menuCache.evict(menuItem.getMenuDate());
+        menuSearchIndex.remove(menuItem.getMenuDate(), menuItemId);
+        dailyMenuSnapshot.refresh(menuItem.getMenuDate());
+        menuChangeLog.deleted(ChangedEntity.MENU_ITEM, menuItemId);
     }
 
     @Transactional
-    @CacheEvict(value = "restaurants", allEntries = true)
     public void deleteMenuByDate(int restaurantId, LocalDate date) {
         log.info("Delete all menu items for restaurant {} on date {}", restaurantId, date);
+        List<Integer> ids = menuItemRepository.getIdsByRestaurantAndDate(restaurantId, date);
         menuItemRepository.deleteByRestaurantAndDate(restaurantId, date);
+        menuCache.evict(date);
+        menuSearchIndex.removeMenu(restaurantId, date);
+        dailyMenuSnapshot.refresh(date);
+        menuChangeLog.deleted(ChangedEntity.MENU_ITEM, ids);
     }
 }
\ No newline at end of file
@@ -0,0 +1,49 @@
+package ru.develop.restaurantvoting.restaurant.service;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+import ru.develop.restaurantvoting.common.util.JsonUtil;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static ru.develop.restaurantvoting.app.config.MenuCacheConfig.MENU_JSON_CACHE;
+
+@Service
+@AllArgsConstructor
+@Slf4j
+public class MenuJsonService {
+    private final RestaurantService restaurantService;
+
+    @Cacheable(value = MENU_JSON_CACHE, key = "#date", sync = true)
+    public MenuJson getMenuJsonByDate(LocalDate date) {
+        return serialize(date);
+    }
+
+    @CachePut(value = MENU_JSON_CACHE, key = "#date")
+    public MenuJson refreshMenuJsonByDate(LocalDate date) {
+        return serialize(date);
+    }
+
+    // bypasses the menus cache, which may still hold the entry being refreshed ahead
+    public MenuJson loadMenuJsonByDate(LocalDate date) {
+        log.info("Serialize restaurants with menu for date {} from the database", date);
+        return MenuJson.of(restaurantService.loadRestaurantsWithMenuByDate(date));
+    }
+
+    private MenuJson serialize(LocalDate date) {
+        log.info("Serialize restaurants with menu for date {}", date);
+        return MenuJson.of(restaurantService.getRestaurantsWithMenuByDate(date));
+    }
+
+    public record MenuJson(byte[] body, String eTag) {
+        public static MenuJson of(List<?> restaurants) {
+            byte[] body = JsonUtil.writeBytes(restaurants);
+            return new MenuJson(body, '"' + DigestUtils.md5DigestAsHex(body) + '"');
+        }
+    }
+}
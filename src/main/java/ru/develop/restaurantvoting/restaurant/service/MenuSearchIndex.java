@@ -0,0 +1,183 @@
+package ru.develop.restaurantvoting.restaurant.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.develop.restaurantvoting.restaurant.model.MenuItem;
+import ru.develop.restaurantvoting.restaurant.repository.RestaurantRepository;
+import ru.develop.restaurantvoting.restaurant.to.RestaurantMenuItemTo;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+
+@Component
+@Slf4j
+public class MenuSearchIndex {
+    private static final Comparator<RestaurantMenuItemTo> RESULT_ORDER =
+            Comparator.comparing(RestaurantMenuItemTo::restaurantName)
+                    .thenComparing(RestaurantMenuItemTo::name)
+                    .thenComparing(RestaurantMenuItemTo::id);
+
+    private final RestaurantRepository restaurantRepository;
+    private final Cache<LocalDate, DayIndex> days;
+
+    public MenuSearchIndex(RestaurantRepository restaurantRepository,
+                           @Value("${app.menu-search.max-days:31}") long maxDays) {
+        this.restaurantRepository = restaurantRepository;
+        this.days = Caffeine.newBuilder().maximumSize(maxDays).build();
+    }
+
+    public List<RestaurantMenuItemTo> search(LocalDate date, String query, int limit) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        return days.get(date, this::load).search(terms, limit);
+    }
+
+    public void index(MenuItem menuItem) {
+        RestaurantMenuItemTo item = new RestaurantMenuItemTo(menuItem.getRestaurant().getId(),
+                menuItem.getRestaurant().getName(), menuItem.getId(), menuItem.getMenuDate(),
+                menuItem.getName(), menuItem.getDescription(), menuItem.getPrice());
+        afterCommit(List.of(item.menuDate()), day -> day.add(item));
+    }
+
+    public void remove(LocalDate date, int menuItemId) {
+        afterCommit(List.of(date), day -> day.remove(menuItemId));
+    }
+
+    public void removeMenu(int restaurantId, LocalDate date) {
+        afterCommit(List.of(date), day -> day.removeRestaurant(restaurantId));
+    }
+
+    // restaurant renames and deletions touch every item of the day, so the day is rebuilt on next search
+    public void evict(Collection<LocalDate> dates) {
+        afterCommit(dates, null);
+    }
+
+    // changes become visible only once committed; a rolled back transaction drops the days it touched,
+    // since they may have been loaded with its uncommitted rows
+    private void afterCommit(Collection<LocalDate> dates, Consumer<DayIndex> change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(dates, change);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                apply(dates, status == STATUS_COMMITTED ? change : null);
+            }
+        });
+    }
+
+    private void apply(Collection<LocalDate> dates, Consumer<DayIndex> change) {
+        for (LocalDate date : dates) {
+            if (change == null) {
+                days.invalidate(date);
+            } else {
+                // days not loaded yet pick the change up from the database
+                days.asMap().computeIfPresent(date, (d, day) -> {
+                    change.accept(day);
+                    return day;
+                });
+            }
+        }
+    }
+
+    private DayIndex load(LocalDate date) {
+        DayIndex day = new DayIndex();
+        restaurantRepository.getMenuItemTosByDate(date).forEach(day::add);
+        log.debug("Menu search index for {} built from {} items", date, day.items.size());
+        return day;
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null) {
+            return List.of();
+        }
+        List<String> tokens = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private static class DayIndex {
+        private final ConcurrentMap<Integer, RestaurantMenuItemTo> items = new ConcurrentHashMap<>();
+        private final ConcurrentNavigableMap<String, Set<Integer>> postings = new ConcurrentSkipListMap<>();
+
+        void add(RestaurantMenuItemTo item) {
+            remove(item.id());
+            items.put(item.id(), item);
+            for (String token : tokens(item)) {
+                postings.computeIfAbsent(token, t -> ConcurrentHashMap.newKeySet()).add(item.id());
+            }
+        }
+
+        void remove(int id) {
+            RestaurantMenuItemTo item = items.remove(id);
+            if (item == null) {
+                return;
+            }
+            for (String token : tokens(item)) {
+                postings.computeIfPresent(token, (t, ids) -> {
+                    ids.remove(id);
+                    return ids.isEmpty() ? null : ids;
+                });
+            }
+        }
+
+        void removeRestaurant(int restaurantId) {
+            items.values().stream()
+                    .filter(item -> item.restaurantId() == restaurantId)
+                    .map(RestaurantMenuItemTo::id)
+                    .toList()
+                    .forEach(this::remove);
+        }
+
+        // every query term has to prefix-match a token of the item's name or description
+        List<RestaurantMenuItemTo> search(List<String> terms, int limit) {
+            Set<Integer> matched = null;
+            for (String term : terms) {
+                Set<Integer> ids = new HashSet<>();
+                postings.subMap(term, true, term + Character.MAX_VALUE, false).values().forEach(ids::addAll);
+                if (matched == null) {
+                    matched = ids;
+                } else {
+                    matched.retainAll(ids);
+                }
+                if (matched.isEmpty()) {
+                    return List.of();
+                }
+            }
+            return matched.stream()
+                    .map(items::get)
+                    .filter(Objects::nonNull)
+                    .sorted(RESULT_ORDER)
+                    .limit(limit)
+                    .toList();
+        }
+
+        private static Set<String> tokens(RestaurantMenuItemTo item) {
+            Set<String> tokens = new HashSet<>(tokenize(item.name()));
+            tokens.addAll(tokenize(item.description()));
+            return tokens;
+        }
+    }
+}
@@ -1,46 +1,110 @@
 package ru.develop.restaurantvoting.restaurant.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.develop.restaurantvoting.common.error.DataConflictException;
+import ru.develop.restaurantvoting.restaurant.model.ChangedEntity;
+import ru.develop.restaurantvoting.restaurant.model.MenuChange;
 import ru.develop.restaurantvoting.restaurant.model.Restaurant;
+import ru.develop.restaurantvoting.restaurant.repository.MenuItemRepository;
 import ru.develop.restaurantvoting.restaurant.repository.RestaurantRepository;
+import ru.develop.restaurantvoting.restaurant.to.MenuChangesTo;
+import ru.develop.restaurantvoting.restaurant.to.RestaurantMenuItemTo;
+import ru.develop.restaurantvoting.restaurant.to.RestaurantWithMenuTo;
+import ru.develop.restaurantvoting.restaurant.util.RestaurantsUtil;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static ru.develop.restaurantvoting.app.config.MenuCacheConfig.MENUS_CACHE;
+import static ru.develop.restaurantvoting.app.config.MetricsConfig.SERVICE_TIMER;
 
 @Service
 @AllArgsConstructor
 @Slf4j
+@Timed(value = SERVICE_TIMER, histogram = true, percentiles = {0.5, 0.99, 0.999})
 public class RestaurantService {
     private final RestaurantRepository restaurantRepository;
+    private final MenuItemRepository menuItemRepository;
+    private final MenuCache menuCache;
+    private final MenuSearchIndex menuSearchIndex;
+    private final DailyMenuSnapshot dailyMenuSnapshot;
+    private final MenuChangeLog menuChangeLog;
+    private final VoteTally voteTally;
+
+    // sync: concurrent misses on a date wait for a single query
+    @Cacheable(value = MENUS_CACHE, key = "#date", sync = true)
+    public List<RestaurantWithMenuTo> getRestaurantsWithMenuByDate(LocalDate date) {
+        log.info("Get all restaurants with menu for date {}", date);
+        return loadRestaurantsWithMenuByDate(date);
+    }
 
-    @Cacheable("restaurants")
-    public List<Restaurant> getRestaurantsWithTodayMenu() {
-        log.info("Get all restaurants with today's menu");
-        return restaurantRepository.getAllWithMenuByDate(LocalDate.now());
+    @CachePut(value = MENUS_CACHE, key = "#date")
+    public List<RestaurantWithMenuTo> refreshRestaurantsWithMenuByDate(LocalDate date) {
+        log.info("Refresh cached restaurants with menu for date {}", date);
+        return loadRestaurantsWithMenuByDate(date);
     }
 
-    @Cacheable("restaurants")
-    public List<Restaurant> getRestaurantsWithMenuByDate(LocalDate date) {
-        log.info("Get all restaurants with menu for date {}", date);
-        return restaurantRepository.getAllWithMenuByDate(date);
+    public List<RestaurantWithMenuTo> loadRestaurantsWithMenuByDate(LocalDate date) {
+        return RestaurantsUtil.groupWithMenuTos(restaurantRepository.getMenuItemTosByDate(date));
     }
 
-    public Optional<Restaurant> getRestaurantWithTodayMenu(int id) {
-        log.info("Get restaurant {} with today's menu", id);
-        return restaurantRepository.getWithMenuByDate(id, LocalDate.now());
+    public Optional<RestaurantMenuPage> getRestaurantWithMenu(int id, LocalDate from, LocalDate to, int days) {
+        log.info("Get restaurant {} with menu from {} to {}, {} days", id, from, to, days);
+        return restaurantRepository.findById(id).map(restaurant -> {
+            List<LocalDate> dates = menuItemRepository.getMenuDates(id, from, to, Limit.of(days + 1));
+            LocalDate nextTo = null;
+            if (dates.size() > days) {
+                nextTo = dates.get(days);
+                dates = dates.subList(0, days);
+            }
+            Restaurant view = new Restaurant(restaurant.getId(), restaurant.getName(), restaurant.getAddress());
+            view.setMenuItems(dates.isEmpty() ? List.of() :
+                    menuItemRepository.getByRestaurantBetween(id, dates.getLast(), dates.getFirst()));
+            return new RestaurantMenuPage(view, nextTo);
+        });
     }
 
-    public Optional<Restaurant> getRestaurantWithMenu(int id) {
-        log.info("Get restaurant {} with all menu", id);
-        return restaurantRepository.getWithMenu(id);
+    // menu items dated before from are left out, so a kiosk only syncs current menus
+    public MenuChangesTo getMenuChanges(long since, LocalDate from) {
+        log.info("Get menu changes since version {} from {}", since, from);
+        long version = menuChangeLog.getVersion();
+        if (since < 0 || since > version) {
+            // a client ahead of the log holds state from before a restart of the in-memory database
+            return new MenuChangesTo(version, true, RestaurantsUtil.getTos(getAllRestaurants()), List.of(),
+                    restaurantRepository.getMenuItemTosFrom(from), List.of());
+        }
+        List<Integer> restaurantIds = new ArrayList<>();
+        List<Integer> deletedRestaurantIds = new ArrayList<>();
+        List<Integer> menuItemIds = new ArrayList<>();
+        List<Integer> deletedMenuItemIds = new ArrayList<>();
+        for (MenuChange change : menuChangeLog.getChanges(since, version)) {
+            (switch (change.getEntityType()) {
+                case RESTAURANT -> change.isDeleted() ? deletedRestaurantIds : restaurantIds;
+                case MENU_ITEM -> change.isDeleted() ? deletedMenuItemIds : menuItemIds;
+            }).add(change.getEntityId());
+        }
+        List<RestaurantMenuItemTo> menuItems = menuItemIds.isEmpty() ? List.of() :
+                restaurantRepository.getMenuItemTosFrom(menuItemIds, from);
+        // an item moved to a date before from has left the client's window, so it gets removed like a deleted one
+        if (menuItems.size() < menuItemIds.size()) {
+            Set<Integer> inWindow = menuItems.stream().map(RestaurantMenuItemTo::id).collect(Collectors.toSet());
+            menuItemIds.stream().filter(id -> !inWindow.contains(id)).forEach(deletedMenuItemIds::add);
+        }
+        return new MenuChangesTo(version, false,
+                restaurantIds.isEmpty() ? List.of() : RestaurantsUtil.getTos(restaurantRepository.getAllByIds(restaurantIds)),
+                deletedRestaurantIds, menuItems, deletedMenuItemIds);
     }
 
     public Optional<Restaurant> getRestaurantOptional(int id) {
@@ -54,7 +118,6 @@ public class RestaurantService {
     }
 
     @Transactional
-    @CacheEvict(value = "restaurants", allEntries = true)
     public Restaurant createRestaurant(Restaurant restaurant) {
         log.info("Create restaurant {}", restaurant.getName());
 
@@ -63,11 +126,12 @@ public class RestaurantService {
                     throw new DataConflictException("Restaurant with name '" + restaurant.getName() + "' already exists");
                 });
 
-        return restaurantRepository.save(restaurant);
+        Restaurant created = restaurantRepository.save(restaurant);
+        menuChangeLog.changed(ChangedEntity.RESTAURANT, created.id());
+        return created;
     }
 
     @Transactional
-    @CacheEvict(value = "restaurants", allEntries = true)
     public Restaurant updateRestaurant(int id, Restaurant restaurant) {
         log.info("Update restaurant {}", id);
         Restaurant existing = restaurantRepository.getExisted(id);
@@ -83,13 +147,27 @@ public class RestaurantService {
 
         existing.setName(restaurant.getName());
         existing.setAddress(restaurant.getAddress());
-        return restaurantRepository.save(existing);
+        Restaurant updated = restaurantRepository.save(existing);
+        List<LocalDate> menuDates = menuItemRepository.getMenuDates(id);
+        menuCache.evict(menuDates);
+        menuSearchIndex.evict(menuDates);
+        dailyMenuSnapshot.refresh(menuDates);
+        menuChangeLog.changed(ChangedEntity.RESTAURANT, id);
+        return updated;
     }
 
     @Transactional
-    @CacheEvict(value = "restaurants", allEntries = true)
     public void deleteRestaurant(int id) {
         log.info("Delete restaurant {}", id);
+        List<LocalDate> menuDates = menuItemRepository.getMenuDates(id);
         restaurantRepository.deleteExisted(id);
+        menuCache.evict(menuDates);
+        menuSearchIndex.evict(menuDates);
+        dailyMenuSnapshot.refresh(menuDates);
+        menuChangeLog.deleted(ChangedEntity.RESTAURANT, id);
+        voteTally.removeRestaurant(id);
+    }
+
+    public record RestaurantMenuPage(Restaurant restaurant, LocalDate nextTo) {
     }
 }
\ No newline at end of file
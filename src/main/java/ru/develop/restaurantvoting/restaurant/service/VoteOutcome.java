@@ -0,0 +1,10 @@
+package ru.develop.restaurantvoting.restaurant.service;
+
+public enum VoteOutcome {
+    CREATED,
+    UPDATED,
+    ALREADY_VOTED,
+    NOT_VOTED,
+    AFTER_DEADLINE,
+    UNKNOWN_RESTAURANT
+}
@@ -1,57 +1,103 @@
 package ru.develop.restaurantvoting.restaurant.service;
 
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.develop.restaurantvoting.common.error.DataConflictException;
 import ru.develop.restaurantvoting.common.error.IllegalRequestDataException;
 import ru.develop.restaurantvoting.common.error.NotFoundException;
 import ru.develop.restaurantvoting.common.util.TimeProvider;
+import ru.develop.restaurantvoting.restaurant.model.Restaurant;
 import ru.develop.restaurantvoting.restaurant.model.Vote;
 import ru.develop.restaurantvoting.restaurant.repository.RestaurantRepository;
 import ru.develop.restaurantvoting.restaurant.repository.VoteRepository;
-import ru.develop.restaurantvoting.user.model.User;
+import ru.develop.restaurantvoting.restaurant.to.VoteCountTo;
+import ru.develop.restaurantvoting.restaurant.to.VoteTo;
+import ru.develop.restaurantvoting.restaurant.util.VotesUtil;
 import ru.develop.restaurantvoting.user.repository.UserRepository;
 
 import java.time.LocalDate;
 import java.util.List;
 
+import static ru.develop.restaurantvoting.app.config.MetricsConfig.SERVICE_TIMER;
+import static ru.develop.restaurantvoting.app.config.MetricsConfig.VOTES_COUNTER;
+import static ru.develop.restaurantvoting.restaurant.model.Vote.VOTES_RESTAURANT_FK;
+import static ru.develop.restaurantvoting.restaurant.model.Vote.VOTES_UNIQUE_USER_DATE_IDX;
+
 @Service
 @AllArgsConstructor
 @Slf4j
+@Timed(value = SERVICE_TIMER, histogram = true, percentiles = {0.5, 0.99, 0.999})
 public class VoteService {
     private final VoteRepository voteRepository;
     private final UserRepository userRepository;
     private final RestaurantRepository restaurantRepository;
     private final TimeProvider timeProvider;
+    private final VoteTally voteTally;
+    private final ObjectProvider<VoteWriteBehind> voteWriteBehind;
+    private final MeterRegistry meterRegistry;
+    private final VoteStandingsStream voteStandingsStream;
+    private final DailyMenuSnapshot dailyMenuSnapshot;
 
-    public Vote getTodayVote(int userId) {
+    public VoteTo getTodayVote(int userId) {
         log.info("Get today's vote for user {}", userId);
-        return voteRepository.getByUserAndDate(userId, timeProvider.getCurrentDate())
-                .orElseThrow(() -> new NotFoundException("Vote for today not found"));
+        LocalDate today = timeProvider.getCurrentDate();
+        if (voteWriteBehind.getIfAvailable() != null) {
+            // the database lags behind acknowledged votes until the writer flushes them, the tally does not
+            int restaurantId = voteTally.getChoice(today, userId)
+                    .orElseThrow(() -> new NotFoundException("Vote for today not found"));
+            return new VoteTo(null, restaurantId, getRestaurantName(restaurantId), today);
+        }
+        return VotesUtil.createTo(voteRepository.getByUserAndDate(userId, today)
+                .orElseThrow(() -> new NotFoundException("Vote for today not found")));
+    }
+
+    public List<VoteTo> getUserVotes(int userId, LocalDate before, int limit) {
+        log.info("Get votes for user {} before {}, limit {}", userId, before, limit);
+        return before == null ?
+                voteRepository.getTosByUser(userId, Limit.of(limit)) :
+                voteRepository.getTosByUserBefore(userId, before, Limit.of(limit));
     }
 
-    public List<Vote> getUserVotes(int userId) {
-        log.info("Get all votes for user {}", userId);
-        return voteRepository.getAllByUser(userId);
+    public List<VoteCountTo> getTodayStandings() {
+        log.info("Get today's vote standings");
+        return voteTally.getStandings(timeProvider.getCurrentDate());
     }
 
+    // a single INSERT: the response is built from the ids, the restaurant name from today's menu snapshot if it has one
     @Transactional
-    public Vote createVote(int userId, int restaurantId) {
+    public VoteTo createVote(int userId, int restaurantId) {
         log.info("Create vote for restaurant {} by user {}", restaurantId, userId);
 
         LocalDate today = timeProvider.getCurrentDate();
-
-        if (voteRepository.getByUserAndDate(userId, today).isPresent()) {
-            throw new DataConflictException("User has already voted today");
+        VoteWriteBehind writeBehind = voteWriteBehind.getIfAvailable();
+        if (writeBehind != null) {
+            Restaurant restaurant = restaurantRepository.getExisted(restaurantId);
+            checkOutcome(writeBehind.create(today, userId, restaurantId), restaurantId);
+            return new VoteTo(null, restaurantId, restaurant.getName(), today);
         }
 
         Vote vote = new Vote(null, today);
-        vote.setUser(userRepository.getExisted(userId));
-        vote.setRestaurant(restaurantRepository.getExisted(restaurantId));
-        return voteRepository.save(vote);
+        vote.setUser(userRepository.getReferenceById(userId));
+        vote.setRestaurant(restaurantRepository.getReferenceById(restaurantId));
+        VoteOutcome outcome;
+        try {
+            voteRepository.save(vote);
+            outcome = VoteOutcome.CREATED;
+        } catch (DataIntegrityViolationException e) {
+            outcome = getViolationOutcome(e);
+        }
+        checkOutcome(outcome, restaurantId);
+
+        voteTally.vote(today, userId, restaurantId);
+        return new VoteTo(vote.getId(), restaurantId, getRestaurantName(restaurantId), today);
     }
 
     @Transactional
@@ -59,14 +105,65 @@ public class VoteService {
         log.info("Update vote for restaurant {} by user {}", restaurantId, userId);
 
         LocalDate today = timeProvider.getCurrentDate();
-        Vote vote = voteRepository.getByUserAndDate(userId, today)
-                .orElseThrow(() -> new NotFoundException("No vote found for today"));
+        VoteWriteBehind writeBehind = voteWriteBehind.getIfAvailable();
+        if (writeBehind != null) {
+            checkOutcome(writeBehind.update(today, userId, restaurantId,
+                    () -> restaurantRepository.existsById(restaurantId)), restaurantId);
+            return;
+        }
 
-        if (!timeProvider.canChangeVote(today)) {
-            throw new IllegalRequestDataException("Cannot change vote after " + TimeProvider.VOTE_DEADLINE);
+        VoteOutcome outcome;
+        try {
+            int updated = voteRepository.updateRestaurant(userId, today, restaurantRepository.getReferenceById(restaurantId),
+                    timeProvider.getFirstOpenVoteDate());
+            if (updated != 0) {
+                outcome = VoteOutcome.UPDATED;
+            } else {
+                outcome = voteRepository.existsByUserAndDate(userId, today) ? VoteOutcome.AFTER_DEADLINE : VoteOutcome.NOT_VOTED;
+            }
+        } catch (DataIntegrityViolationException e) {
+            outcome = getViolationOutcome(e);
         }
+        checkOutcome(outcome, restaurantId);
 
-        vote.setRestaurant(restaurantRepository.getExisted(restaurantId));
-        voteRepository.save(vote);
+        voteTally.vote(today, userId, restaurantId);
+    }
+
+    // a restaurant without a menu today is not in the snapshot, the cached entity has its name
+    private String getRestaurantName(int restaurantId) {
+        String name = dailyMenuSnapshot.getRestaurantName(restaurantId);
+        return name != null ? name : restaurantRepository.getExisted(restaurantId).getName();
+    }
+
+    // any other violation, e.g. the user deleted meanwhile, is not a vote outcome
+    private static VoteOutcome getViolationOutcome(DataIntegrityViolationException e) {
+        if (e.getCause() instanceof ConstraintViolationException violation && violation.getConstraintName() != null) {
+            String constraint = getConstraintName(violation);
+            if (constraint.equalsIgnoreCase(VOTES_UNIQUE_USER_DATE_IDX)) {
+                return VoteOutcome.ALREADY_VOTED;
+            }
+            if (constraint.equalsIgnoreCase(VOTES_RESTAURANT_FK)) {
+                return VoteOutcome.UNKNOWN_RESTAURANT;
+            }
+        }
+        throw e;
+    }
+
+    // H2 reports a schema-qualified name, for unique constraints followed by the backing index:
+    // "PUBLIC.VOTES_UNIQUE_USER_DATE_IDX INDEX PUBLIC.VOTES_UNIQUE_USER_DATE_IDX_INDEX_4"
+    private static String getConstraintName(ConstraintViolationException violation) {
+        String constraint = violation.getConstraintName().split(" ", 2)[0];
+        return constraint.substring(constraint.lastIndexOf('.') + 1);
+    }
+
+    private void checkOutcome(VoteOutcome outcome, int restaurantId) {
+        meterRegistry.counter(VOTES_COUNTER, "outcome", outcome.name().toLowerCase()).increment();
+        switch (outcome) {
+            case ALREADY_VOTED -> throw new DataConflictException("User has already voted today");
+            case NOT_VOTED -> throw new NotFoundException("No vote found for today");
+            case AFTER_DEADLINE -> throw new IllegalRequestDataException("Cannot change vote after " + TimeProvider.VOTE_DEADLINE);
+            case UNKNOWN_RESTAURANT -> throw new NotFoundException("Entity with id=" + restaurantId + " not found");
+            case CREATED, UPDATED -> voteStandingsStream.votesChanged();
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,205 @@
+package ru.develop.restaurantvoting.restaurant.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.develop.restaurantvoting.common.util.JsonUtil;
+import ru.develop.restaurantvoting.common.util.TimeProvider;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static ru.develop.restaurantvoting.common.util.TimeProvider.VOTE_DEADLINE;
+
+/**
+ * Live standings over SSE. Subscribers are async requests that hold no thread while idle; a tick serializes the
+ * standings once when votes changed and hands the frame to every subscriber. A subscriber still writing an older
+ * frame only keeps the newest one, so a slow client skips intermediate frames instead of queueing them.
+ * At the vote deadline every stream gets the final standings and is completed.
+ */
+@Component
+@Slf4j
+public class VoteStandingsStream {
+    static final String STANDINGS_EVENT = "standings";
+    static final String FINAL_EVENT = "final";
+
+    private final VoteTally voteTally;
+    private final TimeProvider timeProvider;
+    private final TaskScheduler taskScheduler;
+    // a send blocks while the client's socket is full: a thread per send keeps stalled clients from starving others
+    private final ExecutorService sendExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Duration interval;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean changed = new AtomicBoolean();
+    private ScheduledFuture<?> ticks;
+
+    public VoteStandingsStream(VoteTally voteTally, TimeProvider timeProvider, TaskScheduler taskScheduler,
+                               @Value("${app.vote.stream.interval:250ms}") Duration interval) {
+        this.voteTally = voteTally;
+        this.timeProvider = timeProvider;
+        this.taskScheduler = taskScheduler;
+        this.interval = interval;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        ticks = taskScheduler.scheduleWithFixedDelay(this::tick, interval);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (ticks != null) {
+            ticks.cancel(false);
+        }
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        sendExecutor.shutdown();
+    }
+
+    public SseEmitter subscribe() {
+        LocalDateTime now = timeProvider.getCurrentDateTime();
+        LocalDateTime deadline = now.toLocalDate().atTime(VOTE_DEADLINE);
+        boolean open = now.isBefore(deadline);
+        // the deadline tick completes the stream, the timeout only backs it up
+        SseEmitter emitter = new SseEmitter(open ? Duration.between(now, deadline).plus(interval.multipliedBy(4)).toMillis() : 0);
+        Subscriber subscriber = new Subscriber(emitter, sendExecutor);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> subscribers.remove(subscriber));
+        if (open) {
+            subscribers.add(subscriber);
+            subscriber.offer(frame(STANDINGS_EVENT, now.toLocalDate()));
+        } else {
+            subscriber.offer(frame(FINAL_EVENT, now.toLocalDate()), true);
+        }
+        return emitter;
+    }
+
+    // called for every accepted vote; subscribers see it with the next tick once the transaction has committed
+    public void votesChanged() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            changed.set(true);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                changed.set(true);
+            }
+        });
+    }
+
+    int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    void tick() {
+        try {
+            LocalDateTime now = timeProvider.getCurrentDateTime();
+            LocalDate today = now.toLocalDate();
+            // streams opened after the deadline get the final frame right away and are never registered
+            if (!now.toLocalTime().isBefore(VOTE_DEADLINE)) {
+                close(today);
+                return;
+            }
+            if (subscribers.isEmpty() || !changed.getAndSet(false)) {
+                return;
+            }
+            Set<DataWithMediaType> frame = frame(STANDINGS_EVENT, today);
+            subscribers.forEach(subscriber -> subscriber.offer(frame));
+        } catch (RuntimeException e) {
+            // an exception would cancel the fixed-delay schedule
+            log.error("Vote standings tick failed", e);
+        }
+    }
+
+    private void close(LocalDate date) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        log.info("Vote deadline for {}: closing {} standings streams", date, subscribers.size());
+        Set<DataWithMediaType> frame = frame(FINAL_EVENT, date);
+        subscribers.forEach(subscriber -> {
+            subscribers.remove(subscriber);
+            subscriber.offer(frame, true);
+        });
+    }
+
+    // built once per tick and shared: an SseEventBuilder appends to itself on every build
+    private Set<DataWithMediaType> frame(String event, LocalDate date) {
+        return SseEmitter.event()
+                .name(event)
+                .data(JsonUtil.writeValue(voteTally.getStandings(date)), MediaType.APPLICATION_JSON)
+                .build();
+    }
+
+    static class Subscriber {
+        private final SseEmitter emitter;
+        private final Executor executor;
+        private final AtomicReference<Frame> pending = new AtomicReference<>();
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private volatile boolean closing;
+
+        Subscriber(SseEmitter emitter, Executor executor) {
+            this.emitter = emitter;
+            this.executor = executor;
+        }
+
+        void offer(Set<DataWithMediaType> event) {
+            offer(event, false);
+        }
+
+        // replaces a frame not picked up yet, and starts a sender unless one is running
+        void offer(Set<DataWithMediaType> event, boolean last) {
+            if (closing) {
+                return;
+            }
+            closing = last;
+            pending.set(new Frame(event, last));
+            if (sending.compareAndSet(false, true)) {
+                executor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            do {
+                Frame frame;
+                while ((frame = pending.getAndSet(null)) != null) {
+                    try {
+                        emitter.send(frame.event());
+                    } catch (IOException | IllegalStateException e) {
+                        // the client went away, the container reports it through onError and onCompletion
+                        closing = true;
+                        return;
+                    }
+                    if (frame.last()) {
+                        emitter.complete();
+                        return;
+                    }
+                }
+                sending.set(false);
+            } while (pending.get() != null && sending.compareAndSet(false, true));
+        }
+
+        private record Frame(Set<DataWithMediaType> event, boolean last) {
+        }
+    }
+}
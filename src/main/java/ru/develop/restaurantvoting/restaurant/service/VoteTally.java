@@ -0,0 +1,216 @@
+package ru.develop.restaurantvoting.restaurant.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.develop.restaurantvoting.common.util.TimeProvider;
+import ru.develop.restaurantvoting.restaurant.repository.VoteRepository;
+import ru.develop.restaurantvoting.restaurant.to.VoteCountTo;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Component
+@Slf4j
+public class VoteTally implements SmartLifecycle {
+    private final VoteRepository voteRepository;
+    private final TimeProvider timeProvider;
+    private final ConcurrentMap<LocalDate, DayTally> days = new ConcurrentHashMap<>();
+    private volatile boolean running;
+
+    public VoteTally(VoteRepository voteRepository, TimeProvider timeProvider) {
+        this.voteRepository = voteRepository;
+        this.timeProvider = timeProvider;
+    }
+
+    @Override
+    public void start() {
+        rebuild();
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        // after the write-behind journal is replayed, before the embedded web server accepts votes
+        return DEFAULT_PHASE - 3072;
+    }
+
+    private void rebuild() {
+        LocalDate today = timeProvider.getCurrentDate();
+        DayTally day = new DayTally();
+        for (Object[] row : voteRepository.getChoicesByDate(today)) {
+            day.choose((Integer) row[0], (Integer) row[1]);
+        }
+        days.put(today, day);
+        days.keySet().removeIf(date -> date.isBefore(today));
+        log.info("Vote tally for {} rebuilt from {} votes", today, day.choices.size());
+    }
+
+    public void vote(LocalDate date, int userId, int restaurantId) {
+        choose(date, userId, restaurantId);
+    }
+
+    public boolean hasVoted(LocalDate date, int userId) {
+        return getChoice(date, userId).isPresent();
+    }
+
+    public Optional<Integer> getChoice(LocalDate date, int userId) {
+        DayTally day = days.get(date);
+        return day == null ? Optional.empty() : Optional.ofNullable(day.choices.get(userId));
+    }
+
+    public boolean claim(LocalDate date, int userId, int restaurantId) {
+        return day(date).claim(userId, restaurantId);
+    }
+
+    // the previous choice, or null when the user has not voted
+    public Integer change(LocalDate date, int userId, int restaurantId) {
+        return day(date).change(userId, restaurantId);
+    }
+
+    // takes back a claim or change that could not be accepted, unless the choice has moved on since
+    public void restore(LocalDate date, int userId, int restaurantId, Integer previous) {
+        day(date).restore(userId, restaurantId, previous);
+    }
+
+    public void withdraw(int userId) {
+        days.keySet().forEach(date -> choose(date, userId, null));
+    }
+
+    public void removeRestaurant(int restaurantId) {
+        days.forEach((date, day) -> day.choices.forEach((userId, chosen) -> {
+            if (chosen == restaurantId) {
+                choose(date, userId, null);
+            }
+        }));
+    }
+
+    public List<VoteCountTo> getStandings(LocalDate date) {
+        DayTally day = days.get(date);
+        if (day == null) {
+            return List.of();
+        }
+        List<VoteCountTo> standings = new ArrayList<>(day.counts.size());
+        day.counts.forEach((restaurantId, count) -> {
+            int votes = count.get();
+            if (votes > 0) {
+                standings.add(new VoteCountTo(restaurantId, votes));
+            }
+        });
+        standings.sort(Comparator.comparingInt(VoteCountTo::getVotes).reversed()
+                .thenComparingInt(VoteCountTo::getRestaurantId));
+        return standings;
+    }
+
+    private void choose(LocalDate date, int userId, Integer restaurantId) {
+        DayTally day = day(date);
+        Integer previous = day.choose(userId, restaurantId);
+        if (!Objects.equals(previous, restaurantId)) {
+            registerUndo(() -> day.restore(userId, restaurantId, previous));
+        }
+    }
+
+    private DayTally day(LocalDate date) {
+        DayTally day = days.get(date);
+        if (day == null) {
+            day = days.computeIfAbsent(date, d -> new DayTally());
+            days.keySet().removeIf(d -> d.isBefore(date));
+        }
+        return day;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void registerUndo(Runnable undo) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        Deque<Runnable> undoLog = (Deque<Runnable>) TransactionSynchronizationManager.getResource(this);
+        if (undoLog == null) {
+            Deque<Runnable> newLog = new ArrayDeque<>();
+            TransactionSynchronizationManager.bindResource(this, newLog);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(VoteTally.this);
+                    if (status != STATUS_COMMITTED) {
+                        newLog.forEach(Runnable::run);
+                    }
+                }
+            });
+            undoLog = newLog;
+        }
+        undoLog.push(undo);
+    }
+
+    private static class DayTally {
+        private final ConcurrentMap<Integer, Integer> choices = new ConcurrentHashMap<>();
+        private final ConcurrentMap<Integer, AtomicInteger> counts = new ConcurrentHashMap<>();
+
+        Integer choose(int userId, Integer restaurantId) {
+            Integer[] previous = new Integer[1];
+            choices.compute(userId, (id, current) -> {
+                previous[0] = current;
+                move(current, restaurantId);
+                return restaurantId;
+            });
+            return previous[0];
+        }
+
+        boolean claim(int userId, int restaurantId) {
+            boolean[] claimed = new boolean[1];
+            choices.compute(userId, (id, current) -> {
+                if (current != null) {
+                    return current;
+                }
+                move(null, restaurantId);
+                claimed[0] = true;
+                return restaurantId;
+            });
+            return claimed[0];
+        }
+
+        Integer change(int userId, int restaurantId) {
+            Integer[] previous = new Integer[1];
+            choices.computeIfPresent(userId, (id, current) -> {
+                previous[0] = current;
+                move(current, restaurantId);
+                return restaurantId;
+            });
+            return previous[0];
+        }
+
+        void restore(int userId, Integer restaurantId, Integer previous) {
+            choices.compute(userId, (id, current) -> {
+                if (!Objects.equals(current, restaurantId)) {
+                    return current;
+                }
+                move(current, previous);
+                return previous;
+            });
+        }
+
+        private void move(Integer from, Integer to) {
+            if (from != null) {
+                counts.get(from).decrementAndGet();
+            }
+            if (to != null) {
+                counts.computeIfAbsent(to, id -> new AtomicInteger()).incrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,360 @@
+package ru.develop.restaurantvoting.restaurant.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.develop.restaurantvoting.common.error.ServiceUnavailableException;
+import ru.develop.restaurantvoting.common.util.TimeProvider;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Component
+@ConditionalOnProperty(name = "app.vote.write-behind.enabled", havingValue = "true")
+@Slf4j
+public class VoteWriteBehind implements SmartLifecycle {
+    static final String MERGE_VOTE =
+            "MERGE INTO votes (user_id, restaurant_id, vote_date) KEY (user_id, vote_date) VALUES (?, ?, ?)";
+
+    private static final String JOURNAL = "votes.journal";
+    private static final String SEGMENT_SUFFIX = ".flushing";
+    private static final Duration MAX_RETRY_DELAY = Duration.ofSeconds(10);
+
+    private final VoteTally voteTally;
+    private final TimeProvider timeProvider;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration flushInterval;
+    private final int queueCapacity;
+    private final Path journalDir;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private final ArrayDeque<PendingVote> queue = new ArrayDeque<>();
+    private BufferedWriter journal;
+    private long segmentSeq;
+    private volatile boolean running;
+    private Thread writer;
+
+    public VoteWriteBehind(VoteTally voteTally, TimeProvider timeProvider,
+                           JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                           @Value("${app.vote.write-behind.batch-size:100}") int batchSize,
+                           @Value("${app.vote.write-behind.flush-interval:200ms}") Duration flushInterval,
+                           @Value("${app.vote.write-behind.queue-capacity:10000}") int queueCapacity,
+                           @Value("${app.vote.write-behind.journal-dir:vote-journal}") Path journalDir) {
+        this.voteTally = voteTally;
+        this.timeProvider = timeProvider;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.flushInterval = flushInterval;
+        this.queueCapacity = queueCapacity;
+        this.journalDir = journalDir;
+    }
+
+    public VoteOutcome create(LocalDate date, int userId, int restaurantId) {
+        return submit(new PendingVote(userId, restaurantId, date),
+                () -> voteTally.claim(date, userId, restaurantId) ?
+                        () -> voteTally.restore(date, userId, restaurantId, null) : null,
+                VoteOutcome.CREATED, VoteOutcome.ALREADY_VOTED);
+    }
+
+    public VoteOutcome update(LocalDate date, int userId, int restaurantId, BooleanSupplier restaurantExists) {
+        if (!voteTally.hasVoted(date, userId)) {
+            return VoteOutcome.NOT_VOTED;
+        }
+        if (!timeProvider.canChangeVote(date)) {
+            return VoteOutcome.AFTER_DEADLINE;
+        }
+        if (!restaurantExists.getAsBoolean()) {
+            return VoteOutcome.UNKNOWN_RESTAURANT;
+        }
+        return submit(new PendingVote(userId, restaurantId, date), () -> {
+            Integer previous = voteTally.change(date, userId, restaurantId);
+            return previous == null ? null : () -> voteTally.restore(date, userId, restaurantId, previous);
+        }, VoteOutcome.UPDATED, VoteOutcome.NOT_VOTED);
+    }
+
+    // the vote counts only once it is journaled: if the journal write fails, the tally is restored
+    private VoteOutcome submit(PendingVote vote, Supplier<Runnable> acknowledge, VoteOutcome accepted, VoteOutcome rejected) {
+        lock.lock();
+        try {
+            long waitNanos = flushInterval.multipliedBy(10).toNanos();
+            while (running && queue.size() >= queueCapacity) {
+                if (waitNanos <= 0) {
+                    throw new ServiceUnavailableException("Too many votes in progress, try again later");
+                }
+                waitNanos = notFull.awaitNanos(waitNanos);
+            }
+            if (!running) {
+                throw new ServiceUnavailableException("Vote ingestion is stopped");
+            }
+            Runnable undo = acknowledge.get();
+            if (undo == null) {
+                return rejected;
+            }
+            try {
+                journal.write(vote.toJournalLine());
+                journal.newLine();
+                journal.flush();
+            } catch (IOException e) {
+                undo.run();
+                throw new UncheckedIOException("Failed to journal vote " + vote, e);
+            }
+            queue.add(vote);
+            if (queue.size() >= batchSize) {
+                notEmpty.signal();
+            }
+            return accepted;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Vote ingestion interrupted");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void start() {
+        try {
+            Files.createDirectories(journalDir);
+            recover();
+            journal = Files.newBufferedWriter(journalDir.resolve(JOURNAL), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open vote journal in " + journalDir, e);
+        }
+        running = true;
+        writer = Thread.ofPlatform().name("vote-writer").start(this::drain);
+        log.info("Write-behind vote ingestion started: batch {}, interval {}, capacity {}",
+                batchSize, flushInterval, queueCapacity);
+    }
+
+    @Override
+    public void stop() {
+        lock.lock();
+        try {
+            running = false;
+            notEmpty.signal();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            writer.join();
+            journal.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            log.warn("Failed to close vote journal", e);
+        }
+        log.info("Write-behind vote ingestion stopped");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        // start before and stop after the embedded web server
+        return DEFAULT_PHASE - 4096;
+    }
+
+    // a batch that fails to flush keeps its journal segment and is retried, newer votes queue up behind it
+    private void drain() {
+        List<PendingVote> batch = null;
+        Path segment = null;
+        Duration retryDelay = flushInterval;
+        try {
+            while (true) {
+                try {
+                    if (batch == null) {
+                        lock.lock();
+                        try {
+                            long waitNanos = flushInterval.toNanos();
+                            while (running && queue.size() < batchSize && waitNanos > 0) {
+                                waitNanos = notEmpty.awaitNanos(waitNanos);
+                            }
+                            if (queue.isEmpty()) {
+                                if (running) {
+                                    continue;
+                                }
+                                return;
+                            }
+                            // rolled first: if that fails, the votes are still queued and journaled
+                            segment = rollJournal();
+                            batch = new ArrayList<>(queue);
+                            queue.clear();
+                            notFull.signalAll();
+                        } finally {
+                            lock.unlock();
+                        }
+                    }
+                    if (write(batch)) {
+                        deleteSegment(segment);
+                        batch = null;
+                        retryDelay = flushInterval;
+                        continue;
+                    }
+                } catch (RuntimeException e) {
+                    // the only writer thread must survive anything, the queue would fill up behind it
+                    log.error("Vote writer failed", e);
+                }
+                if (!running) {
+                    log.warn("Vote writer stopped with unflushed votes, they are replayed from the journal on restart");
+                    return;
+                }
+                log.info("Retrying vote flush in {}", retryDelay);
+                pause(retryDelay);
+                Duration doubled = retryDelay.multipliedBy(2);
+                retryDelay = doubled.compareTo(MAX_RETRY_DELAY) < 0 ? doubled : MAX_RETRY_DELAY;
+            }
+        } catch (InterruptedException e) {
+            log.warn("Vote writer interrupted, pending votes remain in the journal");
+        }
+    }
+
+    // returns early when stopped
+    private void pause(Duration delay) throws InterruptedException {
+        lock.lock();
+        try {
+            long waitNanos = delay.toNanos();
+            while (running && waitNanos > 0) {
+                waitNanos = notEmpty.awaitNanos(waitNanos);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // the journal is reopened even when the move fails, so accepted votes keep being journaled
+    private Path rollJournal() {
+        Path current = journalDir.resolve(JOURNAL);
+        try {
+            journal.close();
+            Path segment = journalDir.resolve(JOURNAL + '.' + segmentSeq + SEGMENT_SUFFIX);
+            Files.move(current, segment);
+            segmentSeq++;
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to roll vote journal", e);
+        } finally {
+            try {
+                journal = Files.newBufferedWriter(current, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            } catch (IOException e) {
+                log.error("Failed to reopen vote journal", e);
+            }
+        }
+    }
+
+    private boolean write(List<PendingVote> batch) {
+        try {
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                        jdbcTemplate.batchUpdate(MERGE_VOTE, batch, batchSize, PendingVote::bind));
+            } catch (DataIntegrityViolationException e) {
+                log.warn("Batch of {} votes rejected, writing one by one", batch.size());
+                batch.forEach(this::writeOne);
+            }
+            log.debug("Flushed {} votes", batch.size());
+            return true;
+        } catch (DataAccessException e) {
+            log.error("Failed to flush {} votes", batch.size(), e);
+            return false;
+        }
+    }
+
+    private void writeOne(PendingVote vote) {
+        try {
+            jdbcTemplate.update(MERGE_VOTE, ps -> PendingVote.bind(ps, vote));
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Dropped vote {}: {}", vote, e.getMostSpecificCause().getMessage());
+        }
+    }
+
+    private void recover() throws IOException {
+        List<Path> segments;
+        try (Stream<Path> files = Files.list(journalDir)) {
+            segments = files.filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted(Comparator.comparingLong(VoteWriteBehind::segmentNumber))
+                    .collect(Collectors.toCollection(ArrayList::new));
+        }
+        Path current = journalDir.resolve(JOURNAL);
+        if (Files.exists(current)) {
+            segments.add(current);
+        }
+        for (Path segment : segments) {
+            List<PendingVote> votes = Files.readAllLines(segment, StandardCharsets.UTF_8).stream()
+                    .filter(line -> !line.isBlank())
+                    .map(PendingVote::fromJournalLine)
+                    .toList();
+            log.info("Replaying {} journaled votes from {}", votes.size(), segment);
+            if (!votes.isEmpty() && !write(votes)) {
+                throw new IllegalStateException("Failed to replay vote journal " + segment);
+            }
+            Files.delete(segment);
+        }
+    }
+
+    private void deleteSegment(Path segment) {
+        try {
+            Files.delete(segment);
+        } catch (IOException e) {
+            log.warn("Failed to delete flushed vote journal {}", segment, e);
+        }
+    }
+
+    private static long segmentNumber(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(JOURNAL.length() + 1, name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    record PendingVote(int userId, int restaurantId, LocalDate date) {
+
+        static PendingVote fromJournalLine(String line) {
+            String[] parts = line.split(",");
+            return new PendingVote(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]), LocalDate.parse(parts[2]));
+        }
+
+        String toJournalLine() {
+            return userId + "," + restaurantId + "," + date;
+        }
+
+        static void bind(PreparedStatement ps, PendingVote vote) throws SQLException {
+            ps.setInt(1, vote.userId);
+            ps.setInt(2, vote.restaurantId);
+            ps.setDate(3, Date.valueOf(vote.date));
+        }
+    }
+}
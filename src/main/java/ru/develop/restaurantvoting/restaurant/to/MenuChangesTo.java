@@ -0,0 +1,9 @@
+package ru.develop.restaurantvoting.restaurant.to;
+
+import java.util.List;
+
+// reset: the lists are the full state and replace whatever the client holds
+public record MenuChangesTo(long version, boolean reset,
+                            List<RestaurantTo> restaurants, List<Integer> deletedRestaurants,
+                            List<RestaurantMenuItemTo> menuItems, List<Integer> deletedMenuItems) {
+}
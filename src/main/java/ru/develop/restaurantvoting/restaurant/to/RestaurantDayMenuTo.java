@@ -0,0 +1,15 @@
+package ru.develop.restaurantvoting.restaurant.to;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// immutable, so one instance can be shared by every reader; serializes like RestaurantWithMenuTo
+public record RestaurantDayMenuTo(Integer id, String name, List<Item> menuItems) {
+
+    public RestaurantDayMenuTo {
+        menuItems = List.copyOf(menuItems);
+    }
+
+    public record Item(Integer id, LocalDate menuDate, String name, String description, Integer price) {
+    }
+}
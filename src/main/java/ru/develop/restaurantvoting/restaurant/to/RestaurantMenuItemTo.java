@@ -0,0 +1,11 @@
+package ru.develop.restaurantvoting.restaurant.to;
+
+import java.time.LocalDate;
+
+public record RestaurantMenuItemTo(Integer restaurantId, String restaurantName,
+                                   Integer id, LocalDate menuDate, String name, String description, Integer price) {
+
+    public MenuItemTo toMenuItemTo() {
+        return new MenuItemTo(id, menuDate, name, description, price);
+    }
+}
@@ -0,0 +1,9 @@
+package ru.develop.restaurantvoting.restaurant.to;
+
+import lombok.Value;
+
+@Value
+public class VoteCountTo {
+    int restaurantId;
+    int votes;
+}
@@ -3,10 +3,12 @@ package ru.develop.restaurantvoting.restaurant.util;
 import lombok.experimental.UtilityClass;
 import ru.develop.restaurantvoting.restaurant.model.Restaurant;
 import ru.develop.restaurantvoting.restaurant.to.MenuItemTo;
+import ru.develop.restaurantvoting.restaurant.to.RestaurantDayMenuTo;
+import ru.develop.restaurantvoting.restaurant.to.RestaurantMenuItemTo;
 import ru.develop.restaurantvoting.restaurant.to.RestaurantTo;
 import ru.develop.restaurantvoting.restaurant.to.RestaurantWithMenuTo;
 
-import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -27,7 +29,6 @@ public class RestaurantsUtil {
     public static RestaurantWithMenuTo createWithMenuTo(Restaurant restaurant) {
         List<MenuItemTo> menuItems = restaurant.getMenuItems() != null ?
                 restaurant.getMenuItems().stream()
-                        .filter(menuItem -> menuItem.getMenuDate().equals(LocalDate.now()))
                         .map(menuItem -> new MenuItemTo(
                                 menuItem.getId(),
                                 menuItem.getMenuDate(),
@@ -43,4 +44,26 @@ public class RestaurantsUtil {
                 .map(RestaurantsUtil::createWithMenuTo)
                 .collect(Collectors.toList());
     }
+
+    public static RestaurantDayMenuTo createDayMenuTo(RestaurantWithMenuTo restaurant) {
+        return new RestaurantDayMenuTo(restaurant.getId(), restaurant.getName(), restaurant.getMenuItems().stream()
+                .map(item -> new RestaurantDayMenuTo.Item(
+                        item.getId(), item.getMenuDate(), item.getName(), item.getDescription(), item.getPrice()))
+                .toList());
+    }
+
+    public static List<RestaurantWithMenuTo> groupWithMenuTos(List<RestaurantMenuItemTo> rows) {
+        List<RestaurantWithMenuTo> restaurants = new ArrayList<>();
+        RestaurantMenuItemTo previous = null;
+        List<MenuItemTo> menuItems = null;
+        for (RestaurantMenuItemTo row : rows) {
+            if (previous == null || !previous.restaurantId().equals(row.restaurantId())) {
+                menuItems = new ArrayList<>();
+                restaurants.add(new RestaurantWithMenuTo(row.restaurantId(), row.restaurantName(), menuItems));
+            }
+            menuItems.add(row.toMenuItemTo());
+            previous = row;
+        }
+        return restaurants;
+    }
 }
\ No newline at end of file
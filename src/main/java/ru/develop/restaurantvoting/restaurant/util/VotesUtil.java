@@ -1,21 +1,43 @@
 package ru.develop.restaurantvoting.restaurant.util;
 
 import lombok.experimental.UtilityClass;
+import ru.develop.restaurantvoting.common.error.IllegalRequestDataException;
 import ru.develop.restaurantvoting.restaurant.model.Vote;
 import ru.develop.restaurantvoting.restaurant.to.VoteTo;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
 import java.util.Collection;
 import java.util.List;
 import java.util.stream.Collectors;
 
 @UtilityClass
 public class VotesUtil {
+    private static final Base64.Encoder CURSOR_ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder CURSOR_DECODER = Base64.getUrlDecoder();
 
     public static VoteTo createTo(Vote vote) {
         return new VoteTo(vote.getId(), vote.getRestaurant().getId(),
                 vote.getRestaurant().getName(), vote.getVoteDate());
     }
 
+    public static String encodeCursor(VoteTo vote) {
+        return CURSOR_ENCODER.encodeToString(vote.getVoteDate().toString().getBytes(StandardCharsets.US_ASCII));
+    }
+
+    public static LocalDate decodeCursor(String cursor) {
+        if (cursor == null) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(new String(CURSOR_DECODER.decode(cursor), StandardCharsets.US_ASCII));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalRequestDataException("Invalid cursor '" + cursor + "'");
+        }
+    }
+
     public static List<VoteTo> getTos(Collection<Vote> votes) {
         return votes.stream()
                 .map(VotesUtil::createTo)
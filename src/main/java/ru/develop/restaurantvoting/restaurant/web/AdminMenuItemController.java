@@ -33,7 +33,7 @@ public class AdminMenuItemController {
     @GetMapping
     public List<MenuItemTo> getAll(@PathVariable int restaurantId) {
         log.info("getAll for restaurant {}", restaurantId);
-        return MenuItemsUtil.getTos(menuItemService.getRestaurantMenu(restaurantId));
+        return menuItemService.getRestaurantMenu(restaurantId);
     }
 
     @GetMapping("/{id}")
@@ -46,7 +46,7 @@ public class AdminMenuItemController {
     public List<MenuItemTo> getByDate(@PathVariable int restaurantId,
                                       @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
         log.info("getByDate {} for restaurant {}", date, restaurantId);
-        return MenuItemsUtil.getTos(menuItemService.getMenuByDate(restaurantId, date));
+        return menuItemService.getMenuByDate(restaurantId, date);
     }
 
     @PostMapping
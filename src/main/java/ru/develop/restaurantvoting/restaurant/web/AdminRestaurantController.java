@@ -3,16 +3,20 @@ package ru.develop.restaurantvoting.restaurant.web;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import ru.develop.restaurantvoting.common.error.IllegalRequestDataException;
+import ru.develop.restaurantvoting.common.util.TimeProvider;
 import ru.develop.restaurantvoting.restaurant.model.Restaurant;
 import ru.develop.restaurantvoting.restaurant.service.RestaurantService;
 import ru.develop.restaurantvoting.restaurant.to.RestaurantCreateTo;
 
 import java.net.URI;
+import java.time.LocalDate;
 
 @RestController
 @RequestMapping(value = AdminRestaurantController.REST_URL, produces = MediaType.APPLICATION_JSON_VALUE)
@@ -20,14 +24,37 @@ import java.net.URI;
 @AllArgsConstructor
 public class AdminRestaurantController {
     static final String REST_URL = "/api/admin/restaurants";
+    static final String NEXT_TO_HEADER = "X-Next-To";
+    static final int DEFAULT_DAYS_BACK = 30;
+    static final int DEFAULT_DAYS_AHEAD = 7;
+    static final int MAX_DAYS = 31;
 
     private final RestaurantService restaurantService;
+    private final TimeProvider timeProvider;
 
     @GetMapping("/{id}/with-menu")
-    public ResponseEntity<Restaurant> getWithMenu(@PathVariable int id) {
-        log.info("getWithMenu {}", id);
-        return restaurantService.getRestaurantWithMenu(id)
-                .map(ResponseEntity::ok)
+    public ResponseEntity<Restaurant> getWithMenu(@PathVariable int id,
+                                                  @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                  @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                  @RequestParam(defaultValue = "7") int days) {
+        LocalDate today = timeProvider.getCurrentDate();
+        LocalDate windowTo = to != null ? to : today.plusDays(DEFAULT_DAYS_AHEAD);
+        LocalDate windowFrom = from != null ? from : today.minusDays(DEFAULT_DAYS_BACK);
+        log.info("getWithMenu {} from {} to {}, {} days", id, windowFrom, windowTo, days);
+        if (windowFrom.isAfter(windowTo)) {
+            throw new IllegalRequestDataException("from must not be after to");
+        }
+        if (days < 1 || days > MAX_DAYS) {
+            throw new IllegalRequestDataException("days must be between 1 and " + MAX_DAYS);
+        }
+        return restaurantService.getRestaurantWithMenu(id, windowFrom, windowTo, days)
+                .map(page -> {
+                    ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+                    if (page.nextTo() != null) {
+                        response.header(NEXT_TO_HEADER, page.nextTo().toString());
+                    }
+                    return response.body(page.restaurant());
+                })
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
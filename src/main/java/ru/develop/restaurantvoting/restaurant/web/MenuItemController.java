@@ -0,0 +1,44 @@
+package ru.develop.restaurantvoting.restaurant.web;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import ru.develop.restaurantvoting.common.error.IllegalRequestDataException;
+import ru.develop.restaurantvoting.common.util.TimeProvider;
+import ru.develop.restaurantvoting.restaurant.service.MenuItemService;
+import ru.develop.restaurantvoting.restaurant.to.RestaurantMenuItemTo;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping(value = MenuItemController.REST_URL, produces = MediaType.APPLICATION_JSON_VALUE)
+@Slf4j
+@AllArgsConstructor
+public class MenuItemController {
+    static final String REST_URL = "/api/menu-items";
+    static final int MAX_QUERY_LENGTH = 100;
+    static final int MAX_LIMIT = 100;
+
+    private final MenuItemService menuItemService;
+    private final TimeProvider timeProvider;
+
+    @GetMapping("/search")
+    public List<RestaurantMenuItemTo> search(@RequestParam String q,
+                                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+                                             @RequestParam(defaultValue = "20") int limit) {
+        log.info("search '{}' on {}, limit {}", q, date, limit);
+        if (q.isBlank() || q.length() > MAX_QUERY_LENGTH) {
+            throw new IllegalRequestDataException("q must be 1 to " + MAX_QUERY_LENGTH + " characters long");
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalRequestDataException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        return menuItemService.search(date != null ? date : timeProvider.getCurrentDate(), q, limit);
+    }
+}
@@ -1,15 +1,28 @@
 package ru.develop.restaurantvoting.restaurant.web;
 
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.develop.restaurantvoting.common.util.TimeProvider;
+import ru.develop.restaurantvoting.restaurant.service.DailyMenuSnapshot;
+import ru.develop.restaurantvoting.restaurant.service.MenuJsonService;
+import ru.develop.restaurantvoting.restaurant.service.MenuJsonService.MenuJson;
 import ru.develop.restaurantvoting.restaurant.service.RestaurantService;
+import ru.develop.restaurantvoting.restaurant.service.VoteService;
+import ru.develop.restaurantvoting.restaurant.service.VoteStandingsStream;
+import ru.develop.restaurantvoting.restaurant.to.MenuChangesTo;
+import ru.develop.restaurantvoting.restaurant.to.RestaurantDayMenuTo;
 import ru.develop.restaurantvoting.restaurant.to.RestaurantTo;
 import ru.develop.restaurantvoting.restaurant.to.RestaurantWithMenuTo;
+import ru.develop.restaurantvoting.restaurant.to.VoteCountTo;
 import ru.develop.restaurantvoting.restaurant.util.RestaurantsUtil;
 
 import java.time.LocalDate;
@@ -24,6 +37,11 @@ public class RestaurantController {
     static final String REST_URL = "/api/restaurants";
 
     private final RestaurantService restaurantService;
+    private final MenuJsonService menuJsonService;
+    private final VoteService voteService;
+    private final VoteStandingsStream voteStandingsStream;
+    private final DailyMenuSnapshot dailyMenuSnapshot;
+    private final TimeProvider timeProvider;
 
     @GetMapping
     public List<RestaurantTo> getAll() {
@@ -41,22 +59,23 @@ public class RestaurantController {
     }
 
     @GetMapping("/with-menu/today")
-    public List<RestaurantWithMenuTo> getAllWithMenuToday() {
+    @ApiResponse(responseCode = "200", content = @Content(array = @ArraySchema(schema = @Schema(implementation = RestaurantDayMenuTo.class))))
+    public ResponseEntity<byte[]> getAllWithMenuToday() {
         log.info("getAllWithMenuToday");
-        return RestaurantsUtil.getWithMenuTos(restaurantService.getRestaurantsWithTodayMenu());
+        return menuJson(dailyMenuSnapshot.getMenuJson());
     }
 
     @GetMapping("/{id}/with-menu/today")
-    public ResponseEntity<RestaurantWithMenuTo> getWithMenuToday(@PathVariable int id) {
+    public ResponseEntity<RestaurantDayMenuTo> getWithMenuToday(@PathVariable int id) {
         log.info("getWithMenuToday {}", id);
-        return restaurantService.getRestaurantWithTodayMenu(id)
-                .map(RestaurantsUtil::createWithMenuTo)
+        return dailyMenuSnapshot.getRestaurantWithMenu(id)
                 .map(ResponseEntity::ok)
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     @GetMapping("/with-menu/by-date")
-    public List<RestaurantWithMenuTo> getAllWithMenuByDate(
+    @ApiResponse(responseCode = "200", content = @Content(array = @ArraySchema(schema = @Schema(implementation = RestaurantWithMenuTo.class))))
+    public ResponseEntity<byte[]> getAllWithMenuByDate(
             @RequestParam @NotNull String date) {
         log.info("getAllWithMenuByDate {}", date);
 
@@ -67,6 +86,34 @@ public class RestaurantController {
             throw new IllegalArgumentException("Invalid date format. Use ISO format (YYYY-MM-DD)");
         }
 
-        return RestaurantsUtil.getWithMenuTos(restaurantService.getRestaurantsWithMenuByDate(parsedDate));
+        return menuJson(menuJsonService.getMenuJsonByDate(parsedDate));
+    }
+
+    // without since, or with a version the server does not know, answers with the full state and reset = true
+    @GetMapping("/changes")
+    public MenuChangesTo getChanges(@RequestParam(defaultValue = "-1") long since) {
+        log.info("getChanges since {}", since);
+        return restaurantService.getMenuChanges(since, timeProvider.getCurrentDate());
+    }
+
+    @GetMapping("/votes/today")
+    public List<VoteCountTo> getTodayVotes() {
+        log.info("getTodayVotes");
+        return voteService.getTodayStandings();
+    }
+
+    // events "standings" (at most every app.vote.stream.interval) and a "final" one at the vote deadline
+    @GetMapping(value = "/votes/today/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamTodayVotes() {
+        log.info("streamTodayVotes");
+        return voteStandingsStream.subscribe();
+    }
+
+    // a matching If-None-Match is answered with 304 by the ETag check in HttpEntityMethodProcessor
+    private ResponseEntity<byte[]> menuJson(MenuJson menu) {
+        return ResponseEntity.ok()
+                .eTag(menu.eTag())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(menu.body());
     }
 }
\ No newline at end of file
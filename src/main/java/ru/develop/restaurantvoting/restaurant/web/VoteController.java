@@ -9,6 +9,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import ru.develop.restaurantvoting.app.AuthUser;
+import ru.develop.restaurantvoting.common.error.IllegalRequestDataException;
 import ru.develop.restaurantvoting.restaurant.service.VoteService;
 import ru.develop.restaurantvoting.restaurant.to.VoteCreateTo;
 import ru.develop.restaurantvoting.restaurant.to.VoteTo;
@@ -22,20 +23,34 @@ import java.util.List;
 @AllArgsConstructor
 public class VoteController {
     static final String REST_URL = "/api/profile/votes";
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final int MAX_LIMIT = 100;
 
     private final VoteService voteService;
 
     @GetMapping
-    public List<VoteTo> getAll(@AuthenticationPrincipal AuthUser authUser) {
-        log.info("getAll for user {}", authUser.id());
-        return VotesUtil.getTos(voteService.getUserVotes(authUser.id()));
+    public ResponseEntity<List<VoteTo>> getAll(@AuthenticationPrincipal AuthUser authUser,
+                                               @RequestParam(required = false) String cursor,
+                                               @RequestParam(defaultValue = "30") int limit) {
+        log.info("getAll for user {} from cursor {}, limit {}", authUser.id(), cursor, limit);
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalRequestDataException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        List<VoteTo> votes = voteService.getUserVotes(authUser.id(), VotesUtil.decodeCursor(cursor), limit + 1);
+        if (votes.size() <= limit) {
+            return ResponseEntity.ok(votes);
+        }
+        List<VoteTo> page = votes.subList(0, limit);
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR_HEADER, VotesUtil.encodeCursor(page.getLast()))
+                .body(page);
     }
 
     @GetMapping("/today")
     public ResponseEntity<VoteTo> getToday(@AuthenticationPrincipal AuthUser authUser) {
         log.info("getToday for user {}", authUser.id());
         try {
-            return ResponseEntity.ok(VotesUtil.createTo(voteService.getTodayVote(authUser.id())));
+            return ResponseEntity.ok(voteService.getTodayVote(authUser.id()));
         } catch (Exception e) {
             return ResponseEntity.notFound().build();
         }
@@ -46,7 +61,7 @@ public class VoteController {
     public VoteTo createVote(@AuthenticationPrincipal AuthUser authUser,
                              @Valid @RequestBody VoteCreateTo voteTo) {
         log.info("create vote for restaurant {} by user {}", voteTo.getRestaurantId(), authUser.id());
-        return VotesUtil.createTo(voteService.createVote(authUser.id(), voteTo.getRestaurantId()));
+        return voteService.createVote(authUser.id(), voteTo.getRestaurantId());
     }
 
     @PutMapping(value = "/today", consumes = MediaType.APPLICATION_JSON_VALUE)
@@ -1,5 +1,6 @@
 package ru.develop.restaurantvoting.user.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.*;
@@ -11,9 +12,12 @@ import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
 import org.jspecify.annotations.NonNull;
+import ru.develop.restaurantvoting.app.config.EntityCacheConfig;
 import ru.develop.restaurantvoting.common.HasIdAndEmail;
 import ru.develop.restaurantvoting.common.model.NamedEntity;
 import ru.develop.restaurantvoting.common.validation.NoHtml;
@@ -22,19 +26,30 @@ import ru.develop.restaurantvoting.restaurant.model.Vote;
 import java.util.*;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", uniqueConstraints = {
+        @UniqueConstraint(columnNames = {"email_key"}, name = "users_unique_email_key_idx")
+})
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = EntityCacheConfig.USERS_REGION)
 @Getter
 @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class User extends NamedEntity implements HasIdAndEmail {
 
-    @Column(name = "email", nullable = false, unique = true)
+    @Column(name = "email", nullable = false)
     @Email
     @NotBlank
     @Size(max = 64)
     @NoHtml
     private String email;
 
+    // computed by the database from email, the indexed key for case-insensitive lookups
+    @Column(name = "email_key", insertable = false, updatable = false,
+            columnDefinition = "VARCHAR(255) GENERATED ALWAYS AS (LOWER(email))")
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @JsonIgnore
+    private String emailKey;
+
     @Column(name = "password", nullable = false)
     @NotBlank
     @Size(max = 128)
@@ -44,6 +59,10 @@ public class User extends NamedEntity implements HasIdAndEmail {
     @Column(name = "enabled", nullable = false, columnDefinition = "bool default true")
     private boolean enabled = true;
 
+    @Column(name = "token_version", nullable = false, columnDefinition = "int default 0")
+    @JsonIgnore
+    private int tokenVersion;
+
     @Column(name = "registered", nullable = false, columnDefinition = "timestamp default now()", updatable = false)
     @NotNull
     @JsonProperty(access = JsonProperty.Access.READ_ONLY)
@@ -55,6 +74,7 @@ public class User extends NamedEntity implements HasIdAndEmail {
             uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "role"}, name = "uk_user_role"))
     @Column(name = "role")
     @ElementCollection(fetch = FetchType.EAGER)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = EntityCacheConfig.USER_ROLES_REGION)
     private Set<Role> roles = EnumSet.noneOf(Role.class);
 
     @OneToMany(fetch = FetchType.LAZY, mappedBy = "user")
@@ -65,6 +85,7 @@ public class User extends NamedEntity implements HasIdAndEmail {
 
     public User(User u) {
         this(u.id, u.name, u.email, u.password, u.enabled, u.registered, u.roles);
+        this.tokenVersion = u.tokenVersion;
     }
 
     public User(Integer id, String name, String email, String password, Role... roles) {
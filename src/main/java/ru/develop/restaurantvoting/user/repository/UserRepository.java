@@ -12,7 +12,7 @@ import static ru.develop.restaurantvoting.app.config.SecurityConfig.PASSWORD_ENC
 
 @Transactional(readOnly = true)
 public interface UserRepository extends BaseRepository<User> {
-    @Query("SELECT u FROM User u WHERE LOWER(u.email) = LOWER(:email)")
+    @Query("SELECT u FROM User u WHERE u.emailKey = LOWER(:email)")
     Optional<User> findByEmailIgnoreCase(String email);
 
     @Transactional
@@ -4,7 +4,10 @@ import org.slf4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.WebDataBinder;
 import org.springframework.web.bind.annotation.InitBinder;
+import ru.develop.restaurantvoting.app.AuthCache;
+import ru.develop.restaurantvoting.app.TokenService;
 import ru.develop.restaurantvoting.common.validation.UniqueMailValidator;
+import ru.develop.restaurantvoting.restaurant.service.VoteTally;
 import ru.develop.restaurantvoting.user.model.User;
 import ru.develop.restaurantvoting.user.repository.UserRepository;
 
@@ -16,9 +19,18 @@ public abstract class AbstractUserController {
     @Autowired
     protected UserRepository repository;
 
+    @Autowired
+    private AuthCache authCache;
+
+    @Autowired
+    private TokenService tokenService;
+
     @Autowired
     private UniqueMailValidator emailValidator;
 
+    @Autowired
+    private VoteTally voteTally;
+
     @InitBinder
     protected void initBinder(WebDataBinder binder) {
         binder.addValidators(emailValidator);
@@ -31,6 +43,17 @@ public abstract class AbstractUserController {
 
     public void delete(int id) {
         log.info("delete {}", id);
+        authCache.evict(id);
         repository.deleteExisted(id);
+        tokenService.revoke(id);
+        voteTally.withdraw(id);
+    }
+
+    // an entity update in the caller's transaction, so the second-level cache evicts only this user
+    protected void invalidateCredentials(int id) {
+        authCache.evict(id);
+        User user = repository.getExisted(id);
+        user.setTokenVersion(user.getTokenVersion() + 1);
+        tokenService.revoke(id, user.getTokenVersion());
     }
 }
\ No newline at end of file
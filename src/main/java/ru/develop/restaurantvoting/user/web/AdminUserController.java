@@ -54,10 +54,14 @@ public class AdminUserController extends AbstractUserController {
 
     @PutMapping(value = "/{id}", consumes = MediaType.APPLICATION_JSON_VALUE)
     @ResponseStatus(HttpStatus.NO_CONTENT)
+    @Transactional
     public void update(@Valid @RequestBody User user, @PathVariable int id) {
         log.info("update {} with id={}", user, id);
         assureIdConsistent(user, id);
+        // the token version is not part of the request body, the merge must not reset it
+        repository.findById(id).ifPresent(stored -> user.setTokenVersion(stored.getTokenVersion()));
         repository.prepareAndSave(user);
+        invalidateCredentials(id);
     }
 
     @GetMapping("/by-email")
@@ -73,5 +77,6 @@ public class AdminUserController extends AbstractUserController {
         log.info(enabled ? "enable {}" : "disable {}", id);
         User user = repository.getExisted(id);
         user.setEnabled(enabled);
+        invalidateCredentials(id);
     }
 }
\ No newline at end of file
@@ -28,7 +28,7 @@ public class ProfileController extends AbstractUserController {
     @GetMapping
     public User get(@AuthenticationPrincipal AuthUser authUser) {
         log.info("get {}", authUser);
-        return authUser.getUser();
+        return repository.getExisted(authUser.id());
     }
 
     @DeleteMapping
@@ -54,7 +54,8 @@ public class ProfileController extends AbstractUserController {
     public void update(@RequestBody @Valid UserTo userTo, @AuthenticationPrincipal AuthUser authUser) {
         log.info("update {} with id={}", userTo, authUser.id());
         assureIdConsistent(userTo, authUser.id());
-        User user = authUser.getUser();
+        User user = new User(repository.getExisted(authUser.id()));
         repository.prepareAndSave(UsersUtil.updateFromTo(user, userTo));
+        invalidateCredentials(authUser.id());
     }
 }
\ No newline at end of file
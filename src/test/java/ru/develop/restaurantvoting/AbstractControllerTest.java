@@ -1,5 +1,7 @@
 package ru.develop.restaurantvoting;
 
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.TestInfo;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -9,6 +11,9 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.transaction.annotation.Transactional;
+import ru.develop.restaurantvoting.common.sql.SqlStats;
+
+import static org.assertj.core.api.Assertions.assertThat;
 
 @SpringBootTest
 @Transactional
@@ -20,7 +25,28 @@ public abstract class AbstractControllerTest {
     @Autowired
     private MockMvc mockMvc;
 
+    private QueryBudget queryBudget;
+
+    @BeforeEach
+    void detectQueryBudget(TestInfo testInfo) {
+        queryBudget = testInfo.getTestMethod().map(method -> method.getAnnotation(QueryBudget.class)).orElse(null);
+    }
+
     protected ResultActions perform(MockHttpServletRequestBuilder builder) throws Exception {
-        return mockMvc.perform(builder);
+        if (queryBudget == null) {
+            return mockMvc.perform(builder);
+        }
+        SqlStats stats = SqlStats.open();
+        ResultActions actions;
+        try {
+            actions = mockMvc.perform(builder);
+        } finally {
+            stats.close();
+        }
+        assertThat(stats.getStatements())
+                .as("SQL statements of %s %s (%s)", actions.andReturn().getRequest().getMethod(),
+                        actions.andReturn().getRequest().getRequestURI(), stats)
+                .isLessThanOrEqualTo(queryBudget.max());
+        return actions;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,15 @@
+package ru.develop.restaurantvoting;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Fails an {@link AbstractControllerTest} when any request it performs runs more than {@link #max()} SQL statements.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface QueryBudget {
+    int max();
+}
@@ -0,0 +1,80 @@
+package ru.develop.restaurantvoting.app.web;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithUserDetails;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import ru.develop.restaurantvoting.AbstractControllerTest;
+import ru.develop.restaurantvoting.TestTimeProviderConfig;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.develop.restaurantvoting.app.config.MetricsConfig.SERVICE_TIMER;
+import static ru.develop.restaurantvoting.app.config.MetricsConfig.VOTES_COUNTER;
+import static ru.develop.restaurantvoting.restaurant.RestaurantTestData.NOT_FOUND;
+import static ru.develop.restaurantvoting.user.UserTestData.ADMIN_MAIL;
+import static ru.develop.restaurantvoting.user.UserTestData.USER_MAIL;
+
+class ActuatorTest extends AbstractControllerTest {
+    private static final String METRICS_URL = "/api/admin/actuator/metrics";
+
+    @Autowired
+    private TestTimeProviderConfig.TestTimeProvider testTimeProvider;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    @WithUserDetails(value = ADMIN_MAIL)
+    void serviceTimer() throws Exception {
+        perform(MockMvcRequestBuilders.get("/api/restaurants/with-menu/by-date").param("date", "2020-01-01"))
+                .andExpect(status().isOk());
+        perform(MockMvcRequestBuilders.get(METRICS_URL + "/" + SERVICE_TIMER)
+                .param("tag", "method:getRestaurantsWithMenuByDate"))
+                .andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.measurements[0].statistic").value("COUNT"));
+    }
+
+    @Test
+    @WithUserDetails(value = ADMIN_MAIL)
+    void voteOutcomeCounter() throws Exception {
+        testTimeProvider.setTimeBeforeDeadline();
+        double before = meterRegistry.counter(VOTES_COUNTER, "outcome", "unknown_restaurant").count();
+
+        perform(MockMvcRequestBuilders.put("/api/profile/votes/today")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"restaurantId\": " + NOT_FOUND + "}"))
+                .andExpect(status().isNotFound());
+        perform(MockMvcRequestBuilders.get(METRICS_URL + "/" + VOTES_COUNTER)
+                .param("tag", "outcome:unknown_restaurant"))
+                .andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.measurements[0].value").value(before + 1));
+    }
+
+    @Test
+    @WithUserDetails(value = ADMIN_MAIL)
+    void connectionPoolMetrics() throws Exception {
+        perform(MockMvcRequestBuilders.get(METRICS_URL))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.names", hasItem("hikaricp.connections.active")));
+    }
+
+    @Test
+    @WithUserDetails(value = USER_MAIL)
+    void metricsForbidden() throws Exception {
+        perform(MockMvcRequestBuilders.get(METRICS_URL))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void metricsUnauthorized() throws Exception {
+        perform(MockMvcRequestBuilders.get(METRICS_URL))
+                .andExpect(status().isUnauthorized());
+    }
+}
@@ -0,0 +1,97 @@
+package ru.develop.restaurantvoting.app.web;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithUserDetails;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.develop.restaurantvoting.AbstractControllerTest;
+import ru.develop.restaurantvoting.restaurant.repository.RestaurantRepository;
+import ru.develop.restaurantvoting.user.repository.UserRepository;
+
+import javax.cache.CacheManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static ru.develop.restaurantvoting.app.config.EntityCacheConfig.*;
+import static ru.develop.restaurantvoting.app.web.AdminStatsController.REST_URL;
+import static ru.develop.restaurantvoting.restaurant.RestaurantTestData.RESTAURANT1_ID;
+import static ru.develop.restaurantvoting.user.UserTestData.*;
+
+class AdminStatsControllerTest extends AbstractControllerTest {
+
+    @Autowired
+    private CacheManager entityCacheManager;
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    @WithUserDetails(value = ADMIN_MAIL)
+    void getAuthCacheStats() throws Exception {
+        perform(MockMvcRequestBuilders.get(REST_URL + "/auth-cache"))
+                .andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.hitCount").isNumber())
+                .andExpect(jsonPath("$.missCount").isNumber());
+    }
+
+    @Test
+    @WithUserDetails(value = USER_MAIL)
+    void getAuthCacheStatsForbidden() throws Exception {
+        perform(MockMvcRequestBuilders.get(REST_URL + "/auth-cache"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithUserDetails(value = ADMIN_MAIL)
+    void getEntityCacheStats() throws Exception {
+        perform(MockMvcRequestBuilders.get(REST_URL + "/entity-cache"))
+                .andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.restaurants.hitCount").isNumber())
+                .andExpect(jsonPath("$.users.missCount").isNumber())
+                .andExpect(jsonPath("$['users.roles'].size").isNumber());
+    }
+
+    @Test
+    @WithUserDetails(value = ADMIN_MAIL)
+    void getSqlStats() throws Exception {
+        perform(MockMvcRequestBuilders.get("/api/restaurants"));
+        perform(MockMvcRequestBuilders.get(REST_URL + "/sql"))
+                .andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$['RestaurantController.getAll'].requests").isNumber())
+                .andExpect(jsonPath("$['RestaurantController.getAll'].maxStatements").value(1));
+    }
+
+    // read-write regions only serve entries cached before the reading transaction started
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void primaryKeyLookupsHitEntityCache() {
+        restaurantRepository.getExisted(RESTAURANT1_ID);
+        userRepository.getExisted(USER_ID);
+        long restaurantHits = region(RESTAURANTS_REGION).stats().hitCount();
+        long userHits = region(USERS_REGION).stats().hitCount();
+        long roleHits = region(USER_ROLES_REGION).stats().hitCount();
+
+        restaurantRepository.getExisted(RESTAURANT1_ID);
+        assertThat(userRepository.getExisted(USER_ID).getRoles()).isNotEmpty();
+
+        assertThat(region(RESTAURANTS_REGION).stats().hitCount()).isEqualTo(restaurantHits + 1);
+        assertThat(region(USERS_REGION).stats().hitCount()).isEqualTo(userHits + 1);
+        assertThat(region(USER_ROLES_REGION).stats().hitCount()).isEqualTo(roleHits + 1);
+    }
+
+    private Cache<?, ?> region(String name) {
+        return entityCacheManager.getCache(name).unwrap(Cache.class);
+    }
+}
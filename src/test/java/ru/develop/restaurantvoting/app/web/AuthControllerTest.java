@@ -0,0 +1,167 @@
+package ru.develop.restaurantvoting.app.web;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.develop.restaurantvoting.AbstractControllerTest;
+import ru.develop.restaurantvoting.app.TokenService;
+import ru.develop.restaurantvoting.common.to.TokenTo;
+import ru.develop.restaurantvoting.common.util.JsonUtil;
+import ru.develop.restaurantvoting.user.repository.UserRepository;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.develop.restaurantvoting.app.web.AuthController.REST_URL;
+import static ru.develop.restaurantvoting.user.UserTestData.*;
+
+// revocations apply once committed, so these tests run without the rollback transaction
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AuthControllerTest extends AbstractControllerTest {
+
+    private static final String PROFILE_URL = "/api/profile";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @DynamicPropertySource
+    static void authProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> "jdbc:h2:mem:voting_auth");
+    }
+
+    @Value("${app.token.secret}")
+    private String secret;
+
+    @Test
+    void login() throws Exception {
+        String token = login(USER_MAIL, "password");
+
+        perform(MockMvcRequestBuilders.get(PROFILE_URL)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(USER_MATCHER.contentJson(user));
+    }
+
+    @Test
+    void loginUnauthorized() throws Exception {
+        perform(MockMvcRequestBuilders.post(REST_URL + "/login"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void loginWrongPassword() throws Exception {
+        perform(MockMvcRequestBuilders.post(REST_URL + "/login").with(httpBasic(USER_MAIL, "wrong")))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void tamperedToken() throws Exception {
+        String token = login(USER_MAIL, "password");
+        String forged = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        perform(MockMvcRequestBuilders.get(PROFILE_URL)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + forged))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void userTokenIsNotAdmin() throws Exception {
+        String token = login(USER_MAIL, "password");
+
+        perform(MockMvcRequestBuilders.get("/api/admin/users")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void disableRevokesToken() throws Exception {
+        String token = login(USER_MAIL, "password");
+        enable(false);
+        try {
+            perform(MockMvcRequestBuilders.get(PROFILE_URL)
+                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                    .andExpect(status().isUnauthorized());
+            perform(MockMvcRequestBuilders.post(REST_URL + "/login").with(httpBasic(USER_MAIL, "password")))
+                    .andExpect(status().isUnauthorized());
+        } finally {
+            enable(true);
+        }
+        perform(MockMvcRequestBuilders.get(PROFILE_URL)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void rolledBackRevocationKeepsToken() throws Exception {
+        String token = login(USER_MAIL, "password");
+        transactionTemplate.executeWithoutResult(status -> {
+            tokenService.revoke(USER_ID, Integer.MAX_VALUE - 1);
+            status.setRollbackOnly();
+        });
+
+        perform(MockMvcRequestBuilders.get(PROFILE_URL)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void tokenCannotBeRefreshed() throws Exception {
+        String token = login(USER_MAIL, "password");
+
+        perform(MockMvcRequestBuilders.post(REST_URL + "/login")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void disableSurvivesRestart() throws Exception {
+        String token = login(USER_MAIL, "password");
+        enable(false);
+        try {
+            // a fresh instance knows only what the database knows, like a restarted or another node
+            TokenService restarted = new TokenService(secret, Duration.ofMinutes(15), userRepository);
+            assertThat(restarted.verify(token)).isNull();
+            assertThatThrownBy(() -> restarted.issue(USER_ID)).isInstanceOf(DisabledException.class);
+        } finally {
+            enable(true);
+        }
+    }
+
+    private void enable(boolean enabled) throws Exception {
+        perform(MockMvcRequestBuilders.patch("/api/admin/users/" + USER_ID)
+                .param("enabled", String.valueOf(enabled))
+                .with(httpBasic(ADMIN_MAIL, "admin")))
+                .andExpect(status().isNoContent());
+    }
+
+    private String login(String email, String password) throws Exception {
+        String json = perform(MockMvcRequestBuilders.post(REST_URL + "/login").with(httpBasic(email, password)))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse().getContentAsString();
+        TokenTo token = JsonUtil.readValue(json, TokenTo.class);
+        assertThat(token.getTokenType()).isEqualTo("Bearer");
+        return token.getAccessToken();
+    }
+}
@@ -0,0 +1,129 @@
+package ru.develop.restaurantvoting.common;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.core.RepositoryInformation;
+import org.springframework.data.repository.support.Repositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import ru.develop.restaurantvoting.AbstractControllerTest;
+
+import java.lang.reflect.Method;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:voting_query_plan",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=ru.develop.restaurantvoting.common.QueryPlanTest$SqlRecorder"
+})
+class QueryPlanTest extends AbstractControllerTest {
+    private static final Set<String> LARGE_TABLES = Set.of("USERS", "USER_ROLE", "RESTAURANTS", "MENU_ITEMS", "VOTES", "MENU_CHANGES");
+
+    private static final Pattern TABLE_SCAN = Pattern.compile("/\\* PUBLIC\\.(\\w+)\\.tableScan");
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void queriesOnLargeTablesUseIndexes() throws Exception {
+        Repositories repositories = new Repositories(context);
+        List<String> scans = new ArrayList<>();
+        int explained = 0;
+        for (Class<?> domainType : repositories) {
+            RepositoryInformation information = repositories.getRequiredRepositoryInformation(domainType);
+            Object repository = repositories.getRepositoryFor(domainType).orElseThrow();
+            for (Method method : information.getRepositoryInterface().getMethods()) {
+                if (!method.isAnnotationPresent(Query.class)) {
+                    continue;
+                }
+                String name = information.getRepositoryInterface().getSimpleName() + '.' + method.getName();
+                for (String sql : recordSql(repository, method)) {
+                    String plan = explain(sql);
+                    explained++;
+                    Matcher scan = TABLE_SCAN.matcher(plan);
+                    while (scan.find()) {
+                        if (LARGE_TABLES.contains(scan.group(1))) {
+                            scans.add(name + " scans " + scan.group(1) + ":\n" + plan);
+                        }
+                    }
+                }
+            }
+        }
+        assertThat(explained).isGreaterThan(20);
+        assertThat(scans).isEmpty();
+    }
+
+    private List<String> recordSql(Object repository, Method method) throws Exception {
+        Object[] args = Arrays.stream(method.getParameterTypes()).map(this::sample).toArray();
+        List<String> statements = new ArrayList<>();
+        SqlRecorder.STATEMENTS.set(statements);
+        try {
+            method.invoke(repository, args);
+        } finally {
+            SqlRecorder.STATEMENTS.remove();
+        }
+        return statements;
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.query(connection -> connection.prepareStatement("EXPLAIN " + sql),
+                rs -> rs.next() ? rs.getString(1) : "");
+    }
+
+    private Object sample(Class<?> type) {
+        if (type == int.class || type == Integer.class) {
+            return 1;
+        } else if (type == long.class) {
+            return 1L;
+        } else if (type == boolean.class) {
+            return false;
+        } else if (type == Collection.class) {
+            return List.of(1);
+        } else if (type == String.class) {
+            return "sample";
+        } else if (type == LocalDate.class) {
+            return LocalDate.now();
+        } else if (type == LocalTime.class) {
+            return LocalTime.NOON;
+        } else if (type == Limit.class) {
+            return Limit.of(10);
+        } else if (type.isAnnotationPresent(jakarta.persistence.Entity.class)) {
+            return entityManager.getReference(type, 1);
+        }
+        throw new IllegalArgumentException("No sample value for query parameter of " + type);
+    }
+
+    // records the invoking thread only: menu loaders and refresh-ahead tasks of the shared context run SQL too
+    public static class SqlRecorder implements StatementInspector {
+        static final ThreadLocal<List<String>> STATEMENTS = new ThreadLocal<>();
+
+        @Override
+        public String inspect(String sql) {
+            List<String> statements = STATEMENTS.get();
+            if (statements != null) {
+                statements.add(sql);
+            }
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package ru.develop.restaurantvoting.common.validation;
+
+import org.jsoup.Jsoup;
+import org.jsoup.safety.Safelist;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NoHtmlValidatorTest {
+    private static final String ALPHABET = "<>&;#/=\"' !?-xXaAbBzZ09\0\t\r\n éя﻿�🍔";
+    private static final String[] FRAGMENTS = {"<b>", "</b>", "<script>", "<!--", "-->", "<!DOCTYPE", "<![CDATA[",
+            "&amp;", "&lt;", "&#60;", "&#x3C;", "&nbsp", "&copy;", "&unknown;", "<a href='x'>", "<?xml", "</", "<3"};
+
+    private final NoHtmlValidator validator = new NoHtmlValidator();
+
+    @ParameterizedTest
+    @ValueSource(strings = {"Burger King", "Fish & Chips", "1 < 2", "<b>Big</b> Burger", "Tom &amp; Jerry", "nul\0char", ""})
+    void sameAsJsoup(String value) {
+        assertSameAsJsoup(value);
+    }
+
+    @Test
+    void nullIsValid() {
+        assertThat(validator.isValid(null, null)).isTrue();
+    }
+
+    // differential fuzzing: the fast path may only skip Jsoup where Jsoup would accept anyway
+    @Test
+    void fuzzSameAsJsoup() {
+        Random random = new Random(20);
+        for (int i = 0; i < 100_000; i++) {
+            StringBuilder value = new StringBuilder();
+            int length = random.nextInt(24);
+            for (int j = 0; j < length; j++) {
+                switch (random.nextInt(4)) {
+                    case 0 -> value.append(FRAGMENTS[random.nextInt(FRAGMENTS.length)]);
+                    case 1 -> value.appendCodePoint(random.nextInt(0x80));
+                    case 2 -> value.appendCodePoint(random.nextInt(Character.MAX_CODE_POINT + 1));
+                    default -> value.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+                }
+            }
+            assertSameAsJsoup(value.toString());
+        }
+    }
+
+    private void assertSameAsJsoup(String value) {
+        assertThat(validator.isValid(value, null)).as("isValid(%s)", value)
+                .isEqualTo(Jsoup.isValid(value, Safelist.none()));
+    }
+}
@@ -0,0 +1,183 @@
+package ru.develop.restaurantvoting.load;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.tomcat.util.threads.VirtualThreadExecutor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.tomcat.TomcatWebServer;
+import org.springframework.boot.web.server.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import ru.develop.restaurantvoting.RestaurantVotingApplication;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static ru.develop.restaurantvoting.user.UserTestData.USER_MAIL;
+
+/**
+ * Platform vs virtual request threads under blocking JDBC. Every prepared statement waits {@code load.db-latency-ms}
+ * like a round trip to a remote database, and each of {@code load.connections} clients keeps one request in flight.
+ * Run with {@code mvn -Pload test -Dtest=ThreadModelLoadTest [-Dload.connections=5000 -Dload.rounds=3 -Dload.pool=1000]}.
+ */
+@Tag("load")
+@Slf4j
+class ThreadModelLoadTest {
+    private static final int CONNECTIONS = Integer.getInteger("load.connections", 5000);
+    private static final int ROUNDS = Integer.getInteger("load.rounds", 3);
+    private static final long DB_LATENCY_MS = Long.getLong("load.db-latency-ms", 20);
+    // with Hikari's default 10 connections the pool, not the thread model, caps both modes
+    private static final int POOL = Integer.getInteger("load.pool", 1000);
+
+    @Test
+    void platformVsVirtualThreads() throws Exception {
+        VotingLoadTest.Report platform = run(false);
+        VotingLoadTest.Report virtual = run(true);
+        assertThat(platform.outcomes()).containsOnlyKeys("200");
+        assertThat(virtual.outcomes()).containsOnlyKeys("200");
+    }
+
+    private VotingLoadTest.Report run(boolean virtualThreads) throws Exception {
+        String mode = virtualThreads ? "virtual" : "platform";
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(RestaurantVotingApplication.class)
+                .profiles("test")
+                .initializers(ctx -> ctx.getBeanFactory().addBeanPostProcessor(new LatencyPostProcessor()))
+                .run("--server.port=0",
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--spring.datasource.url=jdbc:h2:mem:voting_threads_" + mode,
+                        "--spring.datasource.hikari.maximum-pool-size=" + POOL,
+                        "--server.tomcat.accept-count=" + CONNECTIONS,
+                        "--spring.jpa.properties.hibernate.generate_statistics=true",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.springframework.security=WARN",
+                        "--logging.level.org.springframework.test.web.servlet=WARN",
+                        "--logging.level.ru.develop.restaurantvoting=WARN",
+                        "--logging.level.ru.develop.restaurantvoting.load=INFO");
+             HttpClient client = HttpClient.newBuilder()
+                     .executor(Executors.newVirtualThreadPerTaskExecutor())
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .connectTimeout(Duration.ofSeconds(30))
+                     .build()) {
+            TomcatWebServer webServer = (TomcatWebServer) ((WebServerApplicationContext) context).getWebServer();
+            assertThat(webServer.getTomcat().getConnector().getProtocolHandler().getExecutor() instanceof VirtualThreadExecutor)
+                    .isEqualTo(virtualThreads);
+            Statistics statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+            HttpRequest request = request(webServer.getPort());
+
+            long[] latencies = new long[CONNECTIONS * ROUNDS];
+            ConcurrentMap<String, AtomicInteger> outcomes = new ConcurrentHashMap<>();
+            Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+            CountDownLatch connected = new CountDownLatch(CONNECTIONS);
+            CountDownLatch start = new CountDownLatch(1);
+            long began;
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < CONNECTIONS; i++) {
+                    int connection = i;
+                    executor.submit(() -> {
+                        try {
+                            // opens the keep-alive connection outside the measured window
+                            client.send(request, HttpResponse.BodyHandlers.discarding());
+                        } finally {
+                            connected.countDown();
+                        }
+                        start.await();
+                        for (int round = 0; round < ROUNDS; round++) {
+                            long sent = System.nanoTime();
+                            try {
+                                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                                latencies[connection * ROUNDS + round] = System.nanoTime() - sent;
+                                outcomes.computeIfAbsent(String.valueOf(response.statusCode()), k -> new AtomicInteger()).incrementAndGet();
+                            } catch (Exception e) {
+                                failures.add(e);
+                            }
+                        }
+                        return null;
+                    });
+                }
+                connected.await();
+                statistics.clear();
+                began = System.nanoTime();
+                start.countDown();
+            }
+            long elapsed = System.nanoTime() - began;
+            assertThat(failures).isEmpty();
+
+            Map<String, Integer> counts = new TreeMap<>();
+            outcomes.forEach((outcome, count) -> counts.put(outcome, count.get()));
+            VotingLoadTest.Report report = new VotingLoadTest.Report(
+                    String.format("%s threads, %d connections, %d ms per statement, pool %d", mode, CONNECTIONS, DB_LATENCY_MS, POOL),
+                    latencies.length, elapsed, latencies, counts, statistics.getPrepareStatementCount());
+            log.info(report.toString());
+            return report;
+        }
+    }
+
+    private static HttpRequest request(int port) {
+        String credentials = Base64.getEncoder().encodeToString((USER_MAIL + ":password").getBytes(StandardCharsets.UTF_8));
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/profile/votes"))
+                .header("Authorization", "Basic " + credentials)
+                .GET()
+                .build();
+    }
+
+    private static class LatencyPostProcessor implements BeanPostProcessor {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            return bean instanceof DataSource dataSource ? new DelegatingDataSource(dataSource) {
+                @Override
+                public Connection getConnection() throws SQLException {
+                    return delayed(Connection.class, super.getConnection());
+                }
+            } : bean;
+        }
+
+        private static <T> T delayed(Class<T> type, T target) {
+            return type.cast(Proxy.newProxyInstance(ThreadModelLoadTest.class.getClassLoader(), new Class<?>[]{type},
+                    (proxy, method, args) -> {
+                        if (method.getName().equals("equals") && method.getParameterCount() == 1) {
+                            return proxy == args[0];
+                        }
+                        Object result;
+                        try {
+                            result = method.invoke(target, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                        if (target instanceof Statement && method.getName().startsWith("execute")) {
+                            Thread.sleep(DB_LATENCY_MS);
+                        }
+                        return result instanceof PreparedStatement statement && method.getName().equals("prepareStatement") ?
+                                delayed(PreparedStatement.class, statement) : result;
+                    }));
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package ru.develop.restaurantvoting.load;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import ru.develop.restaurantvoting.TestTimeProviderConfig;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static ru.develop.restaurantvoting.user.UserTestData.USER_MAIL;
+
+/**
+ * Reproduces the 10:55-11:00 spike: every synthetic user votes, some twice, then changes the vote
+ * a few times before the deadline and some try again after it. Excluded from the default build,
+ * run with {@code mvn -Pload test [-Dload.users=2000 -Dload.changes=3 -Dload.concurrency=64]}.
+ */
+@Tag("load")
+@Slf4j
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@Import(TestTimeProviderConfig.class)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:voting_load",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.root=WARN",
+        "logging.level.org.springframework.security=WARN",
+        "logging.level.org.springframework.test.web.servlet=WARN",
+        "logging.level.ru.develop.restaurantvoting=WARN",
+        "logging.level.ru.develop.restaurantvoting.app.config.RestExceptionHandler=OFF",
+        "logging.level.ru.develop.restaurantvoting.load=INFO"
+})
+class VotingLoadTest {
+    private static final int USERS = Integer.getInteger("load.users", 1000);
+    private static final int CHANGES = Integer.getInteger("load.changes", 2);
+    private static final int WARMUP = Integer.getInteger("load.warmup", 500);
+    // more in-flight connections than Tomcat's accept backlog measure SYN retransmits instead of the app
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 64);
+    private static final int RESTAURANTS = 3;
+    private static final String PASSWORD = "password";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TestTimeProviderConfig.TestTimeProvider testTimeProvider;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    @Test
+    void preDeadlineSpike() throws Exception {
+        List<String> users = createUsers();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        testTimeProvider.setTimeBeforeDeadline();
+
+        run("warm-up", statistics, WARMUP, i -> request(USER_MAIL, "GET", "/api/restaurants/votes/today", null));
+        Report votes = run("POST /api/profile/votes", statistics, users.size() + users.size() / 10,
+                i -> request(users.get(i % users.size()), "POST", "/api/profile/votes", vote(randomRestaurant())));
+        Report changes = run("PUT /api/profile/votes/today", statistics, users.size() * CHANGES,
+                i -> request(users.get(i % users.size()), "PUT", "/api/profile/votes/today", vote(randomRestaurant())));
+        testTimeProvider.setTimeAfterDeadline();
+        Report late = run("PUT after deadline", statistics, users.size() / 10,
+                i -> request(users.get(i), "PUT", "/api/profile/votes/today", vote(randomRestaurant())));
+
+        assertThat(votes.outcomes()).containsOnlyKeys("201", "409 already voted");
+        assertThat(votes.outcomes().get("201")).isEqualTo(users.size());
+        assertThat(changes.outcomes()).containsOnlyKeys("204");
+        assertThat(late.outcomes()).containsOnlyKeys("422 deadline");
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM votes v JOIN users u ON u.id = v.user_id " +
+                "WHERE u.email LIKE 'load%' AND v.vote_date = ?", Integer.class, LocalDate.now())).isEqualTo(users.size());
+    }
+
+    private List<String> createUsers() {
+        List<String> emails = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            emails.add("load" + i + "@test.ru");
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (name, email, password) VALUES (?, ?, ?)", emails, 500,
+                (ps, email) -> {
+                    ps.setString(1, email);
+                    ps.setString(2, email);
+                    ps.setString(3, "{noop}" + PASSWORD);
+                });
+        jdbcTemplate.update("INSERT INTO user_role (role, user_id) SELECT 'USER', id FROM users WHERE email LIKE 'load%'");
+        return emails;
+    }
+
+    private Report run(String name, Statistics statistics, int requests, IntFunction<HttpRequest> requestFactory) throws InterruptedException {
+        statistics.clear();
+        long[] latencies = new long[requests];
+        ConcurrentMap<String, AtomicInteger> outcomes = new ConcurrentHashMap<>();
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        Semaphore inFlight = new Semaphore(CONCURRENCY);
+        long began;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < requests; i++) {
+                int n = i;
+                executor.submit(() -> {
+                    HttpRequest request = requestFactory.apply(n);
+                    start.await();
+                    inFlight.acquire();
+                    long sent = System.nanoTime();
+                    try {
+                        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                        latencies[n] = System.nanoTime() - sent;
+                        outcomes.computeIfAbsent(classify(response), k -> new AtomicInteger()).incrementAndGet();
+                    } catch (Exception e) {
+                        failures.add(e);
+                    } finally {
+                        inFlight.release();
+                    }
+                    return null;
+                });
+            }
+            began = System.nanoTime();
+            start.countDown();
+        }
+        long elapsed = System.nanoTime() - began;
+        assertThat(failures).isEmpty();
+
+        Map<String, Integer> counts = new TreeMap<>();
+        outcomes.forEach((outcome, count) -> counts.put(outcome, count.get()));
+        Report report = new Report(name, requests, elapsed, latencies, counts, statistics.getPrepareStatementCount());
+        log.info(report.toString());
+        return report;
+    }
+
+    private HttpRequest request(String email, String method, String path, String body) {
+        String credentials = Base64.getEncoder().encodeToString((email + ':' + PASSWORD).getBytes(StandardCharsets.UTF_8));
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Authorization", "Basic " + credentials)
+                .header("Content-Type", "application/json")
+                .method(method, body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static String vote(int restaurantId) {
+        return "{\"restaurantId\": " + restaurantId + "}";
+    }
+
+    private static int randomRestaurant() {
+        return ThreadLocalRandom.current().nextInt(RESTAURANTS) + 1;
+    }
+
+    private static String classify(HttpResponse<String> response) {
+        int status = response.statusCode();
+        String body = response.body();
+        if (status == 409 && body.contains("already voted")) {
+            return "409 already voted";
+        }
+        if (status == 422 && body.contains("Cannot change vote after")) {
+            return "422 deadline";
+        }
+        return String.valueOf(status);
+    }
+
+    record Report(String name, int requests, long elapsedNanos, long[] latencies, Map<String, Integer> outcomes,
+                  long statements) {
+
+        @Override
+        public String toString() {
+            long[] sorted = latencies.clone();
+            Arrays.sort(sorted);
+            double seconds = elapsedNanos / 1e9;
+            StringBuilder histogram = new StringBuilder();
+            int bucket = 0;
+            for (long upperMs = 1; bucket < sorted.length; upperMs *= 2) {
+                int from = bucket;
+                long upperNanos = upperMs * 1_000_000;
+                while (bucket < sorted.length && sorted[bucket] < upperNanos) {
+                    bucket++;
+                }
+                if (bucket > from) {
+                    histogram.append(String.format("%n    < %5d ms: %d", upperMs, bucket - from));
+                }
+            }
+            return String.format("%s: %d requests in %.2f s (%.0f req/s), p50 %.1f ms, p99 %.1f ms, p999 %.1f ms, " +
+                            "outcomes %s, %d SQL statements (%.2f per request)%s",
+                    name, requests, seconds, requests / seconds,
+                    percentile(sorted, 0.5), percentile(sorted, 0.99), percentile(sorted, 0.999),
+                    outcomes, statements, (double) statements / requests, histogram);
+        }
+
+        private static double percentile(long[] sorted, double p) {
+            return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)] / 1e6;
+        }
+    }
+}
@@ -7,7 +7,7 @@ import java.time.LocalDate;
 
 public class MenuItemTestData {
     public static final MatcherFactory.Matcher<MenuItem> MENU_ITEM_MATCHER =
-            MatcherFactory.usingIgnoringFieldsComparator(MenuItem.class, "restaurant");
+            MatcherFactory.usingIgnoringFieldsComparator(MenuItem.class, "restaurant", "nameKey");
 
     public static final int MENU_ITEM1_ID = 1;
     public static final int MENU_ITEM4_ID = 4;
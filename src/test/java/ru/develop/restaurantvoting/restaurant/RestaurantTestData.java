@@ -8,7 +8,7 @@ import java.util.List;
 
 public class RestaurantTestData {
     public static final MatcherFactory.Matcher<Restaurant> RESTAURANT_MATCHER =
-            MatcherFactory.usingIgnoringFieldsComparator(Restaurant.class, "menuItems", "votes");
+            MatcherFactory.usingIgnoringFieldsComparator(Restaurant.class, "menuItems", "votes", "nameKey");
     public static final MatcherFactory.Matcher<RestaurantTo> RESTAURANT_TO_MATCHER =
             MatcherFactory.usingEqualsNoOrderComparator(RestaurantTo.class);
 
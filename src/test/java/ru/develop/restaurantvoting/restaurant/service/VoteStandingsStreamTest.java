@@ -0,0 +1,63 @@
+package ru.develop.restaurantvoting.restaurant.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VoteStandingsStreamTest {
+
+    @Test
+    void slowSubscriberSkipsIntermediateFrames() throws Exception {
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch completed = new CountDownLatch(1);
+        Queue<String> sent = new ConcurrentLinkedQueue<>();
+        SseEmitter emitter = new SseEmitter() {
+            @Override
+            public void send(Set<DataWithMediaType> items) throws IOException {
+                sending.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+                sent.add(items.stream().map(item -> item.getData().toString()).collect(Collectors.joining()));
+            }
+
+            @Override
+            public void complete() {
+                completed.countDown();
+            }
+        };
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            VoteStandingsStream.Subscriber subscriber = new VoteStandingsStream.Subscriber(emitter, executor);
+            subscriber.offer(frame(0));
+            assertThat(sending.await(5, TimeUnit.SECONDS)).isTrue();
+            for (int i = 1; i < 100; i++) {
+                subscriber.offer(frame(i));
+            }
+            subscriber.offer(frame(100), true);
+            subscriber.offer(frame(101));
+            release.countDown();
+            assertThat(completed.await(5, TimeUnit.SECONDS)).isTrue();
+        }
+        assertThat(sent).containsExactly("data:0\n\n", "data:100\n\n");
+    }
+
+    private static Set<DataWithMediaType> frame(int n) {
+        return SseEmitter.event().data(n).build();
+    }
+}
@@ -7,6 +7,7 @@ import org.springframework.security.test.context.support.WithUserDetails;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import ru.develop.restaurantvoting.AbstractControllerTest;
+import ru.develop.restaurantvoting.QueryBudget;
 import ru.develop.restaurantvoting.common.util.JsonUtil;
 import ru.develop.restaurantvoting.restaurant.model.MenuItem;
 import ru.develop.restaurantvoting.restaurant.repository.MenuItemRepository;
@@ -108,6 +109,7 @@ class AdminMenuItemControllerTest extends AbstractControllerTest {
 
     @Test
     @WithUserDetails(value = ADMIN_MAIL)
+    @QueryBudget(max = 1)
     void getByDate() throws Exception {
         perform(MockMvcRequestBuilders.get(getUrl(RESTAURANT1_ID) + "/by-date")
                 .param("date", TODAY.toString()))
@@ -156,6 +158,8 @@ class AdminMenuItemControllerTest extends AbstractControllerTest {
 
     @Test
     @WithUserDetails(value = ADMIN_MAIL)
+    // lookup, insert and the change log entry
+    @QueryBudget(max = 3)
     void create() throws Exception {
         MenuItem newMenuItem = getNew();
         ResultActions action = perform(MockMvcRequestBuilders.post(getUrl(RESTAURANT1_ID))
@@ -7,17 +7,23 @@ import org.springframework.security.test.context.support.WithUserDetails;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import ru.develop.restaurantvoting.AbstractControllerTest;
+import ru.develop.restaurantvoting.QueryBudget;
 import ru.develop.restaurantvoting.common.util.JsonUtil;
+import ru.develop.restaurantvoting.restaurant.model.MenuItem;
 import ru.develop.restaurantvoting.restaurant.model.Restaurant;
 import ru.develop.restaurantvoting.restaurant.repository.RestaurantRepository;
 import ru.develop.restaurantvoting.restaurant.to.RestaurantCreateTo;
 
+import java.time.LocalDate;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.develop.restaurantvoting.restaurant.MenuItemTestData.TODAY;
+import static ru.develop.restaurantvoting.restaurant.MenuItemTestData.YESTERDAY;
 import static ru.develop.restaurantvoting.restaurant.RestaurantTestData.*;
 import static ru.develop.restaurantvoting.restaurant.web.AdminRestaurantController.REST_URL;
 import static ru.develop.restaurantvoting.user.UserTestData.ADMIN_MAIL;
@@ -62,6 +68,64 @@ class AdminRestaurantControllerTest extends AbstractControllerTest {
                 });
     }
 
+    @Test
+    @WithUserDetails(value = ADMIN_MAIL)
+    @QueryBudget(max = 3)
+    void getWithMenuDefaultWindow() throws Exception {
+        ResultActions action = perform(MockMvcRequestBuilders.get(REST_URL_SLASH + RESTAURANT1_ID + "/with-menu"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(AdminRestaurantController.NEXT_TO_HEADER));
+
+        Restaurant restaurant = RESTAURANT_MATCHER.readFromJson(action);
+        assertThat(restaurant.getAddress()).isEqualTo(restaurant1.getAddress());
+        assertThat(restaurant.getMenuItems()).hasSize(5)
+                .extracting(MenuItem::getMenuDate)
+                .containsOnly(TODAY, YESTERDAY);
+    }
+
+    @Test
+    @WithUserDetails(value = ADMIN_MAIL)
+    void getWithMenuByDays() throws Exception {
+        ResultActions firstPage = perform(MockMvcRequestBuilders.get(REST_URL_SLASH + RESTAURANT1_ID + "/with-menu")
+                .param("days", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(AdminRestaurantController.NEXT_TO_HEADER, YESTERDAY.toString()));
+        assertThat(RESTAURANT_MATCHER.readFromJson(firstPage).getMenuItems()).hasSize(3)
+                .extracting(MenuItem::getMenuDate)
+                .containsOnly(TODAY);
+
+        ResultActions secondPage = perform(MockMvcRequestBuilders.get(REST_URL_SLASH + RESTAURANT1_ID + "/with-menu")
+                .param("days", "1")
+                .param("to", YESTERDAY.toString()))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(AdminRestaurantController.NEXT_TO_HEADER));
+        assertThat(RESTAURANT_MATCHER.readFromJson(secondPage).getMenuItems()).hasSize(2)
+                .extracting(MenuItem::getMenuDate)
+                .containsOnly(YESTERDAY);
+    }
+
+    @Test
+    @WithUserDetails(value = ADMIN_MAIL)
+    void getWithMenuOutsideWindow() throws Exception {
+        LocalDate lastMonth = TODAY.minusMonths(1);
+        ResultActions action = perform(MockMvcRequestBuilders.get(REST_URL_SLASH + RESTAURANT1_ID + "/with-menu")
+                .param("from", lastMonth.minusDays(7).toString())
+                .param("to", lastMonth.toString()))
+                .andExpect(status().isOk());
+
+        assertThat(RESTAURANT_MATCHER.readFromJson(action).getMenuItems()).isEmpty();
+    }
+
+    @Test
+    @WithUserDetails(value = ADMIN_MAIL)
+    void getWithMenuInvalidWindow() throws Exception {
+        perform(MockMvcRequestBuilders.get(REST_URL_SLASH + RESTAURANT1_ID + "/with-menu")
+                .param("from", TODAY.toString())
+                .param("to", YESTERDAY.toString()))
+                .andDo(print())
+                .andExpect(status().isUnprocessableContent());
+    }
+
     @Test
     @WithUserDetails(value = ADMIN_MAIL)
     void getNotFound() throws Exception {
@@ -0,0 +1,139 @@
+package ru.develop.restaurantvoting.restaurant.web;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithUserDetails;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.develop.restaurantvoting.AbstractControllerTest;
+import ru.develop.restaurantvoting.common.util.JsonUtil;
+import ru.develop.restaurantvoting.restaurant.model.MenuItem;
+import ru.develop.restaurantvoting.restaurant.model.Restaurant;
+import ru.develop.restaurantvoting.restaurant.to.MenuItemTo;
+import ru.develop.restaurantvoting.restaurant.to.RestaurantCreateTo;
+import ru.develop.restaurantvoting.restaurant.to.RestaurantWithMenuTo;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.develop.restaurantvoting.restaurant.MenuItemTestData.TODAY;
+import static ru.develop.restaurantvoting.restaurant.RestaurantTestData.RESTAURANT2_ID;
+import static ru.develop.restaurantvoting.restaurant.web.RestaurantController.REST_URL;
+import static ru.develop.restaurantvoting.user.UserTestData.ADMIN_MAIL;
+
+// the snapshot is swapped after commit, so these tests run without the rollback transaction
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DailyMenuSnapshotTest extends AbstractControllerTest {
+    private static final String ADMIN_MENU_ITEMS_URL = "/api/admin/restaurants/" + RESTAURANT2_ID + "/menu-items";
+
+    @DynamicPropertySource
+    static void snapshotProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> "jdbc:h2:mem:voting_menu_snapshot");
+    }
+
+    @Test
+    @WithUserDetails(value = ADMIN_MAIL)
+    void snapshotFollowsCommittedMenuChanges() throws Exception {
+        String eTag = getToday().getResponse().getHeader(HttpHeaders.ETAG);
+
+        MvcResult created = perform(MockMvcRequestBuilders.post(ADMIN_MENU_ITEMS_URL)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(JsonUtil.writeValue(new MenuItem(null, "Borscht", TODAY, "Beet soup", 350))))
+                .andExpect(status().isCreated())
+                .andReturn();
+        int id = JsonUtil.readValue(created.getResponse().getContentAsString(), MenuItem.class).id();
+
+        MvcResult today = getToday();
+        assertThat(today.getResponse().getHeader(HttpHeaders.ETAG)).isNotEqualTo(eTag);
+        assertThat(menuItemNames(today)).contains("Borscht");
+        assertThat(getWithMenuToday().getMenuItems()).extracting(MenuItemTo::getName).contains("Borscht");
+
+        perform(MockMvcRequestBuilders.put(ADMIN_MENU_ITEMS_URL + '/' + id)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(JsonUtil.writeValue(new MenuItem(id, "Borscht", TODAY.plusDays(1), "Beet soup", 350))))
+                .andExpect(status().isNoContent());
+        assertThat(menuItemNames(getToday())).doesNotContain("Borscht");
+
+        perform(MockMvcRequestBuilders.delete(ADMIN_MENU_ITEMS_URL + '/' + id))
+                .andExpect(status().isNoContent());
+        assertThat(getToday().getResponse().getHeader(HttpHeaders.ETAG)).isEqualTo(eTag);
+    }
+
+    @Test
+    @WithUserDetails(value = ADMIN_MAIL)
+    void snapshotMatchesByDate() throws Exception {
+        String byDate = perform(MockMvcRequestBuilders.get(REST_URL + "/with-menu/by-date").param("date", TODAY.toString()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertThat(getToday().getResponse().getContentAsString()).isEqualTo(byDate);
+    }
+
+    @Test
+    @WithUserDetails(value = ADMIN_MAIL)
+    void snapshotFollowsCommittedRename() throws Exception {
+        String name = getWithMenuToday().getName();
+        rename(name + " Express");
+        try {
+            assertThat(getWithMenuToday().getName()).isEqualTo(name + " Express");
+        } finally {
+            rename(name);
+        }
+        assertThat(getWithMenuToday().getName()).isEqualTo(name);
+    }
+
+    @Test
+    @WithUserDetails(value = ADMIN_MAIL)
+    void deletedRestaurantLeavesSnapshot() throws Exception {
+        String json = perform(MockMvcRequestBuilders.post(AdminRestaurantController.REST_URL)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(JsonUtil.writeValue(new RestaurantCreateTo(null, "Teremok", "Address"))))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        int id = JsonUtil.readValue(json, Restaurant.class).id();
+        perform(MockMvcRequestBuilders.post("/api/admin/restaurants/" + id + "/menu-items")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(JsonUtil.writeValue(new MenuItem(null, "Blini", TODAY, "Pancakes", 250))))
+                .andExpect(status().isCreated());
+        perform(MockMvcRequestBuilders.get(REST_URL + "/" + id + "/with-menu/today"))
+                .andExpect(status().isOk());
+
+        perform(MockMvcRequestBuilders.delete(AdminRestaurantController.REST_URL + "/" + id))
+                .andExpect(status().isNoContent());
+
+        perform(MockMvcRequestBuilders.get(REST_URL + "/" + id + "/with-menu/today"))
+                .andExpect(status().isNotFound());
+    }
+
+    private void rename(String name) throws Exception {
+        perform(MockMvcRequestBuilders.put(AdminRestaurantController.REST_URL + "/" + RESTAURANT2_ID)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(JsonUtil.writeValue(new RestaurantCreateTo(null, name, "Address"))))
+                .andExpect(status().isNoContent());
+    }
+
+    private MvcResult getToday() throws Exception {
+        return perform(MockMvcRequestBuilders.get(REST_URL + "/with-menu/today"))
+                .andExpect(status().isOk())
+                .andReturn();
+    }
+
+    private RestaurantWithMenuTo getWithMenuToday() throws Exception {
+        String json = perform(MockMvcRequestBuilders.get(REST_URL + "/" + RESTAURANT2_ID + "/with-menu/today"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return JsonUtil.readValue(json, RestaurantWithMenuTo.class);
+    }
+
+    private static List<String> menuItemNames(MvcResult result) throws Exception {
+        return JsonUtil.readValues(result.getResponse().getContentAsString(), RestaurantWithMenuTo.class).stream()
+                .flatMap(restaurant -> restaurant.getMenuItems().stream())
+                .map(MenuItemTo::getName)
+                .toList();
+    }
+}
@@ -0,0 +1,151 @@
+package ru.develop.restaurantvoting.restaurant.web;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithUserDetails;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.develop.restaurantvoting.AbstractControllerTest;
+import ru.develop.restaurantvoting.QueryBudget;
+import ru.develop.restaurantvoting.common.util.JsonUtil;
+import ru.develop.restaurantvoting.restaurant.model.MenuItem;
+import ru.develop.restaurantvoting.restaurant.service.MenuChangeLog;
+import ru.develop.restaurantvoting.restaurant.service.MenuItemService;
+import ru.develop.restaurantvoting.restaurant.to.MenuChangesTo;
+import ru.develop.restaurantvoting.restaurant.to.RestaurantCreateTo;
+import ru.develop.restaurantvoting.restaurant.to.RestaurantMenuItemTo;
+import ru.develop.restaurantvoting.restaurant.to.RestaurantTo;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.develop.restaurantvoting.restaurant.MenuItemTestData.TODAY;
+import static ru.develop.restaurantvoting.restaurant.MenuItemTestData.YESTERDAY;
+import static ru.develop.restaurantvoting.restaurant.RestaurantTestData.RESTAURANT3_ID;
+import static ru.develop.restaurantvoting.restaurant.web.RestaurantController.REST_URL;
+import static ru.develop.restaurantvoting.user.UserTestData.ADMIN_MAIL;
+import static ru.develop.restaurantvoting.user.UserTestData.USER_MAIL;
+
+// versions become readable only once committed, so these tests run without the rollback transaction
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class MenuChangesControllerTest extends AbstractControllerTest {
+    private static final String ADMIN_MENU_ITEMS_URL = "/api/admin/restaurants/" + RESTAURANT3_ID + "/menu-items";
+
+    @Autowired
+    private MenuChangeLog menuChangeLog;
+
+    @Autowired
+    private MenuItemService menuItemService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @DynamicPropertySource
+    static void changesProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> "jdbc:h2:mem:voting_menu_changes");
+    }
+
+    @Test
+    @WithUserDetails(value = USER_MAIL)
+    void fullStateWithoutVersion() throws Exception {
+        MenuChangesTo changes = getChanges(-1);
+        assertThat(changes.reset()).isTrue();
+        assertThat(changes.restaurants()).extracting(RestaurantTo::getName).contains("Burger King", "KFC", "McDonalds");
+        assertThat(changes.menuItems()).isNotEmpty()
+                .extracting(RestaurantMenuItemTo::menuDate).doesNotContain(YESTERDAY);
+        assertThat(changes.deletedMenuItems()).isEmpty();
+
+        assertThat(getChanges(changes.version() + 1).reset()).isTrue();
+    }
+
+    @Test
+    @WithUserDetails(value = USER_MAIL)
+    @QueryBudget(max = 1)
+    void nothingChanged() throws Exception {
+        MenuChangesTo changes = getChanges(menuChangeLog.getVersion());
+        assertThat(changes.reset()).isFalse();
+        assertThat(changes.restaurants()).isEmpty();
+        assertThat(changes.menuItems()).isEmpty();
+        assertThat(changes.deletedRestaurants()).isEmpty();
+        assertThat(changes.deletedMenuItems()).isEmpty();
+    }
+
+    @Test
+    @WithUserDetails(value = ADMIN_MAIL)
+    void changesSinceVersion() throws Exception {
+        long version = menuChangeLog.getVersion();
+        String body = perform(MockMvcRequestBuilders.post(ADMIN_MENU_ITEMS_URL)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(JsonUtil.writeValue(new MenuItem(null, "Popcorn Chicken", TODAY, "Bites", 250))))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        int id = JsonUtil.readValue(body, MenuItem.class).id();
+        rename("KFC Express");
+
+        MenuChangesTo changes = getChanges(version);
+        assertThat(changes.reset()).isFalse();
+        assertThat(changes.version()).isGreaterThan(version);
+        assertThat(changes.menuItems()).singleElement()
+                .satisfies(item -> assertThat(item.id()).isEqualTo(id))
+                .satisfies(item -> assertThat(item.restaurantName()).isEqualTo("KFC Express"));
+        assertThat(changes.restaurants()).extracting(RestaurantTo::getId).containsExactly(RESTAURANT3_ID);
+
+        perform(MockMvcRequestBuilders.delete(ADMIN_MENU_ITEMS_URL + '/' + id))
+                .andExpect(status().isNoContent());
+        rename("KFC");
+
+        MenuChangesTo deleted = getChanges(changes.version());
+        assertThat(deleted.menuItems()).isEmpty();
+        assertThat(deleted.deletedMenuItems()).containsExactly(id);
+        assertThat(deleted.restaurants()).extracting(RestaurantTo::getName).containsExactly("KFC");
+    }
+
+    @Test
+    @WithUserDetails(value = USER_MAIL)
+    void itemMovedBeforeWindowIsRemoved() throws Exception {
+        int id = menuItemService.createMenuItem(RESTAURANT3_ID, new MenuItem(null, "Boxmaster", TODAY, "Wrap", 350)).id();
+        long version = menuChangeLog.getVersion();
+        menuItemService.updateMenuItem(RESTAURANT3_ID, id, new MenuItem(id, "Boxmaster", YESTERDAY, "Wrap", 350));
+        try {
+            MenuChangesTo changes = getChanges(version);
+            assertThat(changes.menuItems()).isEmpty();
+            assertThat(changes.deletedMenuItems()).containsExactly(id);
+        } finally {
+            menuItemService.deleteMenuItem(RESTAURANT3_ID, id);
+        }
+    }
+
+    @Test
+    void versionWaitsForTransactionsInFlight() {
+        long version = menuChangeLog.getVersion();
+        AtomicInteger id = new AtomicInteger();
+        transactionTemplate.executeWithoutResult(status -> {
+            id.set(menuItemService.createMenuItem(RESTAURANT3_ID, new MenuItem(null, "Wings", TODAY, "Hot Wings", 300)).id());
+            assertThat(menuChangeLog.getVersion()).isEqualTo(version);
+        });
+        assertThat(menuChangeLog.getVersion()).isGreaterThan(version);
+        menuItemService.deleteMenuItem(RESTAURANT3_ID, id.get());
+    }
+
+    private void rename(String name) throws Exception {
+        perform(MockMvcRequestBuilders.put(AdminRestaurantController.REST_URL + "/" + RESTAURANT3_ID)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(JsonUtil.writeValue(new RestaurantCreateTo(null, name, "123456 Moscow, Paveletskaya"))))
+                .andExpect(status().isNoContent());
+    }
+
+    private MenuChangesTo getChanges(long since) throws Exception {
+        String json = perform(MockMvcRequestBuilders.get(REST_URL + "/changes").param("since", String.valueOf(since)))
+                .andExpect(status().isOk())
+                .andDo(print())
+                .andReturn().getResponse().getContentAsString();
+        return JsonUtil.readValue(json, MenuChangesTo.class);
+    }
+}
@@ -0,0 +1,133 @@
+package ru.develop.restaurantvoting.restaurant.web;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithUserDetails;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.develop.restaurantvoting.AbstractControllerTest;
+import ru.develop.restaurantvoting.common.util.JsonUtil;
+import ru.develop.restaurantvoting.restaurant.model.MenuItem;
+import ru.develop.restaurantvoting.restaurant.to.RestaurantMenuItemTo;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.develop.restaurantvoting.restaurant.MenuItemTestData.TODAY;
+import static ru.develop.restaurantvoting.restaurant.MenuItemTestData.YESTERDAY;
+import static ru.develop.restaurantvoting.restaurant.RestaurantTestData.RESTAURANT2_ID;
+import static ru.develop.restaurantvoting.restaurant.web.MenuItemController.REST_URL;
+import static ru.develop.restaurantvoting.user.UserTestData.ADMIN_MAIL;
+import static ru.develop.restaurantvoting.user.UserTestData.USER_MAIL;
+
+// menu changes reach the index only on commit, so these tests run without the rollback transaction
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class MenuItemControllerTest extends AbstractControllerTest {
+
+    private static final String SEARCH_URL = REST_URL + "/search";
+    private static final String ADMIN_MENU_ITEMS_URL = "/api/admin/restaurants/" + RESTAURANT2_ID + "/menu-items";
+
+    @DynamicPropertySource
+    static void searchProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> "jdbc:h2:mem:voting_menu_search");
+    }
+
+    @Test
+    @WithUserDetails(value = USER_MAIL)
+    void searchByPrefix() throws Exception {
+        assertThat(search("chick", null))
+                .extracting(RestaurantMenuItemTo::restaurantName, RestaurantMenuItemTo::name)
+                .containsExactly(
+                        tuple("KFC", "Original Recipe"),
+                        tuple("KFC", "Twister"),
+                        tuple("KFC", "Zinger"),
+                        tuple("McDonalds", "McChicken"),
+                        tuple("McDonalds", "Nuggets"));
+    }
+
+    @Test
+    @WithUserDetails(value = USER_MAIL)
+    void searchMatchesAllTerms() throws Exception {
+        assertThat(search("Chicken BURG", null))
+                .extracting(RestaurantMenuItemTo::name)
+                .containsExactly("McChicken");
+    }
+
+    @Test
+    @WithUserDetails(value = USER_MAIL)
+    void searchByDate() throws Exception {
+        assertThat(search("fries", TODAY)).extracting(RestaurantMenuItemTo::name).containsExactly("Fries");
+        assertThat(search("fries", YESTERDAY)).isEmpty();
+        assertThat(search("whop", YESTERDAY)).extracting(RestaurantMenuItemTo::menuDate).containsExactly(YESTERDAY);
+    }
+
+    @Test
+    @WithUserDetails(value = USER_MAIL)
+    void searchLimit() throws Exception {
+        String json = perform(MockMvcRequestBuilders.get(SEARCH_URL).param("q", "chick").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertThat(JsonUtil.readValues(json, RestaurantMenuItemTo.class))
+                .extracting(RestaurantMenuItemTo::name)
+                .containsExactly("Original Recipe", "Twister");
+
+        perform(MockMvcRequestBuilders.get(SEARCH_URL).param("q", "chick").param("limit", "0"))
+                .andExpect(status().isUnprocessableContent());
+        perform(MockMvcRequestBuilders.get(SEARCH_URL).param("q", "chick").param("limit", "101"))
+                .andExpect(status().isUnprocessableContent());
+    }
+
+    @Test
+    @WithUserDetails(value = USER_MAIL)
+    void searchBlank() throws Exception {
+        perform(MockMvcRequestBuilders.get(SEARCH_URL).param("q", "  "))
+                .andDo(print())
+                .andExpect(status().isUnprocessableContent());
+    }
+
+    @Test
+    @WithUserDetails(value = ADMIN_MAIL)
+    void searchFollowsMenuChanges() throws Exception {
+        assertThat(search("борщ", null)).isEmpty();
+
+        ResultActions created = perform(MockMvcRequestBuilders.post(ADMIN_MENU_ITEMS_URL)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(JsonUtil.writeValue(new MenuItem(null, "Борщ", TODAY, "Beet soup", 350))))
+                .andExpect(status().isCreated());
+        int id = JsonUtil.readValue(created.andReturn().getResponse().getContentAsString(), MenuItem.class).id();
+        assertThat(search("борщ", null)).singleElement()
+                .satisfies(item -> assertThat(item.restaurantName()).isEqualTo("McDonalds"));
+        assertThat(search("beet", null)).extracting(RestaurantMenuItemTo::id).containsExactly(id);
+
+        perform(MockMvcRequestBuilders.put(ADMIN_MENU_ITEMS_URL + '/' + id)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(JsonUtil.writeValue(new MenuItem(id, "Solyanka", TODAY, "Meat soup", 380))))
+                .andExpect(status().isNoContent());
+        assertThat(search("борщ", null)).isEmpty();
+        assertThat(search("soup", null)).extracting(RestaurantMenuItemTo::name).containsExactly("Solyanka");
+
+        perform(MockMvcRequestBuilders.delete(ADMIN_MENU_ITEMS_URL + '/' + id))
+                .andExpect(status().isNoContent());
+        assertThat(search("soup", null)).isEmpty();
+    }
+
+    private List<RestaurantMenuItemTo> search(String query, LocalDate date) throws Exception {
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(SEARCH_URL).param("q", query);
+        if (date != null) {
+            request.param("date", date.toString());
+        }
+        String json = perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return JsonUtil.readValues(json, RestaurantMenuItemTo.class);
+    }
+}
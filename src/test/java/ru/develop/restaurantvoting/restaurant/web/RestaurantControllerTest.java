@@ -2,11 +2,14 @@ package ru.develop.restaurantvoting.restaurant.web;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithUserDetails;
+import org.springframework.test.json.JsonCompareMode;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import ru.develop.restaurantvoting.AbstractControllerTest;
+import ru.develop.restaurantvoting.QueryBudget;
 import ru.develop.restaurantvoting.common.util.JsonUtil;
 import ru.develop.restaurantvoting.restaurant.model.Restaurant;
 import ru.develop.restaurantvoting.restaurant.repository.RestaurantRepository;
@@ -21,8 +24,11 @@ import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hamcrest.Matchers.not;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static ru.develop.restaurantvoting.restaurant.MenuItemTestData.TODAY;
 import static ru.develop.restaurantvoting.restaurant.MenuItemTestData.YESTERDAY;
@@ -40,6 +46,7 @@ class RestaurantControllerTest extends AbstractControllerTest {
 
     @Test
     @WithUserDetails(value = USER_MAIL)
+    @QueryBudget(max = 1)
     void getAll() throws Exception {
         perform(MockMvcRequestBuilders.get(REST_URL))
                 .andExpect(status().isOk())
@@ -122,6 +129,16 @@ class RestaurantControllerTest extends AbstractControllerTest {
 
     @Test
     @WithUserDetails(value = USER_MAIL)
+    @QueryBudget(max = 0)
+    void getAllOverQueryBudget() {
+        assertThatThrownBy(() -> perform(MockMvcRequestBuilders.get(REST_URL)))
+                .isInstanceOf(AssertionError.class)
+                .hasMessageContaining("GET " + REST_URL);
+    }
+
+    @Test
+    @WithUserDetails(value = USER_MAIL)
+    @QueryBudget(max = 0)
     void getAllWithMenuToday() throws Exception {
         perform(MockMvcRequestBuilders.get(REST_URL + "/with-menu/today"))
                 .andExpect(status().isOk())
@@ -173,6 +190,31 @@ class RestaurantControllerTest extends AbstractControllerTest {
                 });
     }
 
+    @Test
+    @WithUserDetails(value = USER_MAIL)
+    void getAllWithMenuTodayNotModified() throws Exception {
+        String eTag = perform(MockMvcRequestBuilders.get(REST_URL + "/with-menu/today"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        perform(MockMvcRequestBuilders.get(REST_URL + "/with-menu/today").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andDo(print())
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    @WithUserDetails(value = USER_MAIL)
+    void getAllWithMenuByDateStaleETag() throws Exception {
+        perform(MockMvcRequestBuilders.get(REST_URL + "/with-menu/by-date").param("date", YESTERDAY.toString())
+                .header(HttpHeaders.IF_NONE_MATCH, "\"stale\""))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not("\"stale\"")))
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+
     @Test
     void getAllWithMenuTodayUnauthorized() throws Exception {
         perform(MockMvcRequestBuilders.get(REST_URL + "/with-menu/today"))
@@ -182,6 +224,7 @@ class RestaurantControllerTest extends AbstractControllerTest {
 
     @Test
     @WithUserDetails(value = USER_MAIL)
+    @QueryBudget(max = 0)
     void getWithMenuToday() throws Exception {
         perform(MockMvcRequestBuilders.get(REST_URL_SLASH + RESTAURANT1_ID + "/with-menu/today"))
                 .andExpect(status().isOk())
@@ -264,9 +307,12 @@ class RestaurantControllerTest extends AbstractControllerTest {
                 .andExpect(result -> {
                     String json = result.getResponse().getContentAsString();
                     List<RestaurantWithMenuTo> restaurants = JsonUtil.readValues(json, RestaurantWithMenuTo.class);
+                    assertThat(restaurants).isNotEmpty();
                     restaurants.forEach(restaurant -> {
                         assertThat(restaurant.getId()).isNotNull();
                         assertThat(restaurant.getName()).isNotNull();
+                        assertThat(restaurant.getMenuItems()).isNotEmpty()
+                                .allSatisfy(menuItem -> assertThat(menuItem.getMenuDate()).isEqualTo(YESTERDAY));
                     });
                 });
     }
@@ -396,9 +442,15 @@ class RestaurantControllerTest extends AbstractControllerTest {
     void testRestaurantWithMenuByDateForDeletedRestaurant() throws Exception {
         restaurantRepository.deleteById(RESTAURANT1_ID);
 
-        perform(MockMvcRequestBuilders.get(REST_URL_SLASH + RESTAURANT1_ID + "/with-menu/today"))
+        // the today endpoints serve committed data only, this rolled back delete is visible by date
+        perform(MockMvcRequestBuilders.get(REST_URL + "/with-menu/by-date").param("date", TODAY.toString()))
                 .andDo(print())
-                .andExpect(status().isNotFound());
+                .andExpect(status().isOk())
+                .andExpect(result -> {
+                    String json = result.getResponse().getContentAsString();
+                    List<RestaurantWithMenuTo> restaurants = JsonUtil.readValues(json, RestaurantWithMenuTo.class);
+                    assertThat(restaurants).extracting(RestaurantWithMenuTo::getId).doesNotContain(RESTAURANT1_ID);
+                });
     }
 
     @Test
@@ -414,10 +466,10 @@ class RestaurantControllerTest extends AbstractControllerTest {
 
     @Test
     @WithUserDetails(value = USER_MAIL)
-    void testEmptyResponseForNoRestaurantsWithMenuToday() throws Exception {
+    void testEmptyResponseForNoRestaurantsWithMenuByDate() throws Exception {
         restaurantRepository.deleteAll();
 
-        perform(MockMvcRequestBuilders.get(REST_URL + "/with-menu/today"))
+        perform(MockMvcRequestBuilders.get(REST_URL + "/with-menu/by-date").param("date", TODAY.toString()))
                 .andExpect(status().isOk())
                 .andDo(print())
                 .andExpect(content().json("[]"));
@@ -484,4 +536,26 @@ class RestaurantControllerTest extends AbstractControllerTest {
                     assertThat(fries.getMenuDate()).isEqualTo(TODAY);
                 });
     }
-}
\ No newline at end of file
+
+    @Test
+    @WithUserDetails(value = USER_MAIL)
+    void getTodayVotes() throws Exception {
+        perform(MockMvcRequestBuilders.get(REST_URL + "/votes/today"))
+                .andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(content().json("""
+                        [
+                            {"restaurantId": 1, "votes": 1},
+                            {"restaurantId": 2, "votes": 1}
+                        ]
+                        """, JsonCompareMode.STRICT));
+    }
+
+    @Test
+    void getTodayVotesUnauthorized() throws Exception {
+        perform(MockMvcRequestBuilders.get(REST_URL + "/votes/today"))
+                .andDo(print())
+                .andExpect(status().isUnauthorized());
+    }
+}
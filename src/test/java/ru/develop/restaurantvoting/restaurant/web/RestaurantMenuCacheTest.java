@@ -0,0 +1,251 @@
+package ru.develop.restaurantvoting.restaurant.web;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithUserDetails;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import ru.develop.restaurantvoting.AbstractControllerTest;
+import ru.develop.restaurantvoting.common.util.JsonUtil;
+import ru.develop.restaurantvoting.restaurant.model.MenuItem;
+import ru.develop.restaurantvoting.restaurant.repository.RestaurantRepository;
+import ru.develop.restaurantvoting.restaurant.service.MenuCache;
+import ru.develop.restaurantvoting.restaurant.service.MenuCacheWarmer;
+import ru.develop.restaurantvoting.restaurant.service.RestaurantService;
+import ru.develop.restaurantvoting.restaurant.to.RestaurantCreateTo;
+import ru.develop.restaurantvoting.restaurant.to.RestaurantWithMenuTo;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.develop.restaurantvoting.app.config.MenuCacheConfig.MENUS_CACHE;
+import static ru.develop.restaurantvoting.app.config.MenuCacheConfig.MENU_JSON_CACHE;
+import static ru.develop.restaurantvoting.restaurant.MenuItemTestData.*;
+import static ru.develop.restaurantvoting.restaurant.RestaurantTestData.RESTAURANT1_ID;
+import static ru.develop.restaurantvoting.restaurant.web.RestaurantController.REST_URL;
+import static ru.develop.restaurantvoting.user.UserTestData.ADMIN_MAIL;
+import static ru.develop.restaurantvoting.user.UserTestData.USER_MAIL;
+
+@TestPropertySource(properties = {
+        "spring.cache.type=caffeine",
+        "spring.datasource.url=jdbc:h2:mem:voting_menu_cache",
+        "app.menu-cache.current-ttl=5m",
+        "app.menu-cache.past-ttl=24h"
+})
+class RestaurantMenuCacheTest extends AbstractControllerTest {
+    private static final LocalDate TOMORROW = TODAY.plusDays(1);
+    private static final String ADMIN_MENU_ITEMS_URL = AdminMenuItemController.REST_URL;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MenuCacheWarmer menuCacheWarmer;
+
+    @Autowired
+    private MenuCache menuCache;
+
+    @Autowired
+    private RestaurantService restaurantService;
+
+    @MockitoSpyBean
+    private RestaurantRepository restaurantRepository;
+
+    private Cache<Object, Object> menus;
+    private Cache<Object, Object> menuJson;
+
+    @BeforeEach
+    void setUp() {
+        menus = ((CaffeineCache) cacheManager.getCache(MENUS_CACHE)).getNativeCache();
+        menus.invalidateAll();
+        menuJson = ((CaffeineCache) cacheManager.getCache(MENU_JSON_CACHE)).getNativeCache();
+        menuJson.invalidateAll();
+    }
+
+    @Test
+    @WithUserDetails(value = USER_MAIL)
+    void todayMenuIsCachedByDate() throws Exception {
+        long hits = menuJson.stats().hitCount();
+        perform(MockMvcRequestBuilders.get(REST_URL + "/with-menu/by-date").param("date", TODAY.toString()))
+                .andExpect(status().isOk());
+        perform(MockMvcRequestBuilders.get(REST_URL + "/with-menu/by-date").param("date", TODAY.toString()))
+                .andExpect(status().isOk());
+
+        assertThat(menus.asMap()).containsOnlyKeys(TODAY);
+        assertThat(menuJson.asMap()).containsOnlyKeys(TODAY);
+        assertThat(menuJson.stats().hitCount()).isEqualTo(hits + 1);
+    }
+
+    @Test
+    @WithUserDetails(value = USER_MAIL)
+    void pastMenuLivesLonger() throws Exception {
+        perform(MockMvcRequestBuilders.get(REST_URL + "/with-menu/by-date").param("date", TODAY.toString()))
+                .andExpect(status().isOk());
+        perform(MockMvcRequestBuilders.get(REST_URL + "/with-menu/by-date").param("date", YESTERDAY.toString()))
+                .andExpect(status().isOk());
+
+        assertThat(expiresAfter(TODAY)).isLessThanOrEqualTo(Duration.ofMinutes(5));
+        assertThat(expiresAfter(YESTERDAY)).isGreaterThan(Duration.ofHours(23));
+    }
+
+    @Test
+    void tomorrowIsWarmedUntilAfterMidnight() {
+        menuCacheWarmer.warmUpTomorrow();
+
+        Duration untilMidnight = Duration.between(LocalDateTime.now(), TOMORROW.atStartOfDay());
+        assertThat(menus.asMap()).containsOnlyKeys(TOMORROW);
+        assertThat(menuJson.asMap()).containsOnlyKeys(TOMORROW);
+        assertThat(expiresAfter(TOMORROW)).isGreaterThan(untilMidnight);
+    }
+
+    @Test
+    @WithUserDetails(value = ADMIN_MAIL)
+    void menuItemDeleteKeepsOtherDatesCached() throws Exception {
+        cacheAllDates();
+
+        perform(MockMvcRequestBuilders.delete(ADMIN_MENU_ITEMS_URL + "/" + MENU_ITEM1_ID, RESTAURANT1_ID))
+                .andExpect(status().isNoContent());
+
+        assertThat(menus.asMap()).containsOnlyKeys(YESTERDAY, TOMORROW);
+    }
+
+    @Test
+    @WithUserDetails(value = ADMIN_MAIL)
+    void menuItemCreateEvictsOnlyItsDate() throws Exception {
+        cacheAllDates();
+
+        perform(MockMvcRequestBuilders.post(ADMIN_MENU_ITEMS_URL, RESTAURANT1_ID)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(JsonUtil.writeValue(new MenuItem(null, "New Item", TOMORROW, "New Description", 400))))
+                .andExpect(status().isCreated());
+
+        assertThat(menus.asMap()).containsOnlyKeys(TODAY, YESTERDAY);
+    }
+
+    @Test
+    @WithUserDetails(value = ADMIN_MAIL)
+    void restaurantUpdateEvictsOnlyItsMenuDates() throws Exception {
+        cacheAllDates();
+
+        perform(MockMvcRequestBuilders.put(AdminRestaurantController.REST_URL + "/" + RESTAURANT1_ID)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(JsonUtil.writeValue(new RestaurantCreateTo(null, "Updated Name", "Updated Address"))))
+                .andExpect(status().isNoContent());
+
+        assertThat(menus.asMap()).containsOnlyKeys(TOMORROW);
+    }
+
+    @Test
+    @WithUserDetails(value = ADMIN_MAIL)
+    void restaurantCreateKeepsAllDatesCached() throws Exception {
+        cacheAllDates();
+
+        perform(MockMvcRequestBuilders.post(AdminRestaurantController.REST_URL)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(JsonUtil.writeValue(new RestaurantCreateTo(null, "New Restaurant", "New Address"))))
+                .andExpect(status().isCreated());
+
+        assertThat(menus.asMap()).containsOnlyKeys(TODAY, YESTERDAY, TOMORROW);
+    }
+
+    @Test
+    @WithUserDetails(value = USER_MAIL)
+    void menuJsonIsServedFromCacheUntilEdited() throws Exception {
+        String eTag = perform(MockMvcRequestBuilders.get(REST_URL + "/with-menu/by-date").param("date", TODAY.toString()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        long hits = menuJson.stats().hitCount();
+
+        perform(MockMvcRequestBuilders.get(REST_URL + "/with-menu/by-date").param("date", TODAY.toString()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+        assertThat(menuJson.stats().hitCount()).isEqualTo(hits + 1);
+
+        menuCache.evict(TODAY);
+        assertThat(menuJson.asMap()).isEmpty();
+    }
+
+    @Test
+    void concurrentMissesRunOneQuery() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            loading.countDown();
+            release.await();
+            return query(invocation);
+        }).when(restaurantRepository).getMenuItemTosByDate(TODAY);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<List<RestaurantWithMenuTo>>> readers = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                readers.add(executor.submit(() -> restaurantService.getRestaurantsWithMenuByDate(TODAY)));
+            }
+            assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+            release.countDown();
+            for (Future<List<RestaurantWithMenuTo>> reader : readers) {
+                assertThat(reader.get(5, TimeUnit.SECONDS)).hasSize(3);
+            }
+        }
+        verify(restaurantRepository, times(1)).getMenuItemTosByDate(TODAY);
+    }
+
+    @Test
+    void hotMenuIsRefreshedAheadWithoutBlockingReaders() throws Exception {
+        List<RestaurantWithMenuTo> cached = restaurantService.getRestaurantsWithMenuByDate(TODAY);
+        assertThat(menus.policy().refreshAfterWrite()).isPresent();
+
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            release.await();
+            return query(invocation);
+        }).when(restaurantRepository).getMenuItemTosByDate(TODAY);
+        CompletableFuture<Object> refresh = ((LoadingCache<Object, Object>) menus).refresh(TODAY);
+
+        assertThat(restaurantService.getRestaurantsWithMenuByDate(TODAY)).isSameAs(cached);
+        release.countDown();
+        assertThat(refresh.get(5, TimeUnit.SECONDS)).isNotSameAs(cached).isEqualTo(cached);
+        assertThat(restaurantService.getRestaurantsWithMenuByDate(TODAY)).isNotSameAs(cached);
+    }
+
+    private void cacheAllDates() throws Exception {
+        perform(MockMvcRequestBuilders.get(REST_URL + "/with-menu/by-date").param("date", TODAY.toString()))
+                .andExpect(status().isOk());
+        perform(MockMvcRequestBuilders.get(REST_URL + "/with-menu/by-date").param("date", YESTERDAY.toString()))
+                .andExpect(status().isOk());
+        menuCacheWarmer.warmUpTomorrow();
+        assertThat(menus.asMap()).containsOnlyKeys(TODAY, YESTERDAY, TOMORROW);
+    }
+
+    // the repository is an interface proxy, so the spy delegates to it instead of calling a real method
+    private Object query(InvocationOnMock invocation) throws Throwable {
+        return mockingDetails(restaurantRepository).getMockCreationSettings().getDefaultAnswer().answer(invocation);
+    }
+
+    private Duration expiresAfter(LocalDate date) {
+        return Duration.ofNanos(menus.policy().expireVariably().orElseThrow()
+                .getExpiresAfter(date, TimeUnit.NANOSECONDS).orElseThrow());
+    }
+}
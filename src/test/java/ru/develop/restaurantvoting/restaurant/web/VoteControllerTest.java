@@ -3,24 +3,36 @@ package ru.develop.restaurantvoting.restaurant.web;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.security.test.context.support.WithUserDetails;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.transaction.annotation.Transactional;
 import ru.develop.restaurantvoting.AbstractControllerTest;
+import ru.develop.restaurantvoting.QueryBudget;
 import ru.develop.restaurantvoting.TestTimeProviderConfig;
+import ru.develop.restaurantvoting.common.util.JsonUtil;
+import ru.develop.restaurantvoting.restaurant.RestaurantTestData;
 import ru.develop.restaurantvoting.restaurant.model.Vote;
+import ru.develop.restaurantvoting.restaurant.repository.RestaurantRepository;
 import ru.develop.restaurantvoting.restaurant.repository.VoteRepository;
 import ru.develop.restaurantvoting.restaurant.service.VoteService;
+import ru.develop.restaurantvoting.restaurant.to.VoteCountTo;
+import ru.develop.restaurantvoting.restaurant.to.VoteTo;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.containsString;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static ru.develop.restaurantvoting.restaurant.RestaurantTestData.*;
 import static ru.develop.restaurantvoting.restaurant.VoteTestData.*;
@@ -35,9 +47,15 @@ class VoteControllerTest extends AbstractControllerTest {
     @Autowired
     private VoteRepository voteRepository;
 
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
     @Autowired
     private VoteService voteService;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @Autowired
     private TestTimeProviderConfig.TestTimeProvider testTimeProvider;
 
@@ -60,6 +78,61 @@ class VoteControllerTest extends AbstractControllerTest {
                     """, false));
     }
 
+    @Test
+    @WithUserDetails(value = USER_MAIL)
+    @QueryBudget(max = 1)
+    void getAllByPages() throws Exception {
+        for (int daysAgo = 1; daysAgo <= 4; daysAgo++) {
+            jdbcTemplate.update("INSERT INTO votes (user_id, restaurant_id, vote_date) VALUES (?, ?, ?)",
+                    USER_ID, RESTAURANT2_ID, LocalDate.now().minusDays(daysAgo));
+        }
+
+        List<LocalDate> dates = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            MockHttpServletResponse response = perform(MockMvcRequestBuilders.get(REST_URL)
+                    .param("limit", "2")
+                    .param("cursor", cursor))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse();
+            List<VoteTo> page = JsonUtil.readValues(response.getContentAsString(), VoteTo.class);
+            assertThat(page).hasSizeLessThanOrEqualTo(2);
+            page.forEach(vote -> dates.add(vote.getVoteDate()));
+            cursor = response.getHeader(VoteController.NEXT_CURSOR_HEADER);
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(dates).hasSize(5)
+                .isSortedAccordingTo(Comparator.reverseOrder())
+                .startsWith(LocalDate.now());
+    }
+
+    @Test
+    @WithUserDetails(value = USER_MAIL)
+    void getAllLastPageHasNoCursor() throws Exception {
+        perform(MockMvcRequestBuilders.get(REST_URL).param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(VoteController.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    @WithUserDetails(value = USER_MAIL)
+    void getAllInvalidCursor() throws Exception {
+        perform(MockMvcRequestBuilders.get(REST_URL).param("cursor", "not-a-cursor"))
+                .andDo(print())
+                .andExpect(status().isUnprocessableContent());
+    }
+
+    @Test
+    @WithUserDetails(value = USER_MAIL)
+    void getAllLimitTooLarge() throws Exception {
+        perform(MockMvcRequestBuilders.get(REST_URL).param("limit", "1000"))
+                .andDo(print())
+                .andExpect(status().isUnprocessableContent());
+    }
+
     @Test
     @WithUserDetails(value = ADMIN_MAIL)
     void getAllAsAdmin() throws Exception {
@@ -123,7 +196,7 @@ class VoteControllerTest extends AbstractControllerTest {
     @Test
     @WithUserDetails(value = USER_MAIL)
     void getTodayNotFound() throws Exception {
-        voteRepository.deleteById(VOTE1_ID);
+        deleteVote(VOTE1_ID);
 
         perform(MockMvcRequestBuilders.get(REST_URL_TODAY))
                 .andDo(print())
@@ -139,8 +212,9 @@ class VoteControllerTest extends AbstractControllerTest {
 
     @Test
     @WithUserDetails(value = USER_MAIL)
+    @QueryBudget(max = 1)
     void createVote() throws Exception {
-        voteRepository.delete(userVote1);
+        deleteVote(VOTE1_ID);
 
         String newVoteJson = """
         {
@@ -164,10 +238,25 @@ class VoteControllerTest extends AbstractControllerTest {
         assertThat(userVotes.get(0).getRestaurant().getId()).isEqualTo(RESTAURANT3_ID);
     }
 
+    @Test
+    @WithUserDetails(value = USER_MAIL)
+    void createVoteForRestaurantWithoutMenu() throws Exception {
+        deleteVote(VOTE1_ID);
+        int id = restaurantRepository.saveAndFlush(RestaurantTestData.getNew()).id();
+
+        perform(MockMvcRequestBuilders.post(REST_URL)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"restaurantId\": " + id + "}"))
+                .andExpect(status().isCreated())
+                .andDo(print())
+                .andExpect(jsonPath("$.restaurantId").value(id))
+                .andExpect(jsonPath("$.restaurantName").value("New Restaurant"));
+    }
+
     @Test
     @WithUserDetails(value = ADMIN_MAIL)
     void createVoteAsAdmin() throws Exception {
-        voteRepository.deleteById(VOTE2_ID);
+        deleteVote(VOTE2_ID);
 
         String newVoteJson = """
             {
@@ -208,7 +297,7 @@ class VoteControllerTest extends AbstractControllerTest {
     @Test
     @WithUserDetails(value = USER_MAIL)
     void createVoteForNonExistentRestaurant() throws Exception {
-        voteRepository.deleteById(VOTE1_ID);
+        deleteVote(VOTE1_ID);
 
         String newVoteJson = """
             {
@@ -226,7 +315,7 @@ class VoteControllerTest extends AbstractControllerTest {
     @Test
     @WithUserDetails(value = USER_MAIL)
     void createVoteWithInvalidData() throws Exception {
-        voteRepository.deleteById(VOTE1_ID);
+        deleteVote(VOTE1_ID);
 
         String invalidJson = "{}";
 
@@ -273,6 +362,23 @@ class VoteControllerTest extends AbstractControllerTest {
         assertThat(updated.getRestaurant().getId()).isEqualTo(RESTAURANT3_ID);
     }
 
+    @Test
+    @WithUserDetails(value = USER_MAIL)
+    void updateVoteMovesTodayStandings() throws Exception {
+        testTimeProvider.setTimeBeforeDeadline();
+
+        perform(MockMvcRequestBuilders.put(REST_URL_TODAY)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {
+                        "restaurantId": 2
+                    }
+                    """))
+                .andExpect(status().isNoContent());
+
+        assertThat(voteService.getTodayStandings()).containsExactly(new VoteCountTo(RESTAURANT2_ID, 2));
+    }
+
     @Test
     @WithUserDetails(value = ADMIN_MAIL)
     void updateVoteBeforeDeadlineAsAdmin() throws Exception {
@@ -313,10 +419,27 @@ class VoteControllerTest extends AbstractControllerTest {
                 .andExpect(content().string(containsString("Cannot change vote after")));
     }
 
+    @Test
+    @WithUserDetails(value = USER_MAIL)
+    void updateVoteAfterDeadlineForNonExistentRestaurant() throws Exception {
+        testTimeProvider.setTimeAfterDeadline();
+
+        perform(MockMvcRequestBuilders.put(REST_URL_TODAY)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {
+                        "restaurantId": 999
+                    }
+                    """))
+                .andDo(print())
+                .andExpect(status().isUnprocessableContent())
+                .andExpect(content().string(containsString("Cannot change vote after")));
+    }
+
     @Test
     @WithUserDetails(value = USER_MAIL)
     void updateVoteNoVoteForToday() throws Exception {
-        voteRepository.deleteById(VOTE1_ID);
+        deleteVote(VOTE1_ID);
 
         testTimeProvider.setTimeBeforeDeadline();
 
@@ -369,7 +492,7 @@ class VoteControllerTest extends AbstractControllerTest {
     @Test
     @WithUserDetails(value = USER_MAIL)
     void createVoteThenUpdateBeforeDeadline() throws Exception {
-        voteRepository.deleteById(VOTE1_ID);
+        deleteVote(VOTE1_ID);
 
         String newVoteJson = """
             {
@@ -414,14 +537,14 @@ class VoteControllerTest extends AbstractControllerTest {
                 .andExpect(result -> {
                     String json = result.getResponse().getContentAsString();
                     assertThat(json).contains("\"id\":1");
-                    assertThat(json).contains("\"id\":3");
+                    assertThat(json).contains("\"id\":" + yesterdayVote.id());
                 });
     }
 
     @Test
     @WithUserDetails(value = USER_MAIL)
     void testCreateVoteTwiceDifferentDays() throws Exception {
-        voteRepository.deleteById(VOTE1_ID);
+        deleteVote(VOTE1_ID);
 
         String firstVoteJson = """
             {
@@ -478,7 +601,7 @@ class VoteControllerTest extends AbstractControllerTest {
     @Test
     @WithUserDetails(value = USER_MAIL)
     void testCreateAndUpdateFlow() throws Exception {
-        voteRepository.deleteById(VOTE1_ID);
+        deleteVote(VOTE1_ID);
 
         testTimeProvider.setTimeOneHourBeforeDeadline();
         String createVoteJson = """
@@ -521,7 +644,7 @@ class VoteControllerTest extends AbstractControllerTest {
     @Test
     @WithUserDetails(value = USER_MAIL)
     void testEmptyVotingHistoryForNewUser() throws Exception {
-        voteRepository.deleteById(VOTE1_ID);
+        deleteVote(VOTE1_ID);
 
         perform(MockMvcRequestBuilders.get(REST_URL))
                 .andExpect(status().isOk())
@@ -563,4 +686,10 @@ class VoteControllerTest extends AbstractControllerTest {
                 .andExpect(status().isUnprocessableContent())
                 .andExpect(content().string(containsString("Cannot change vote after")));
     }
-}
\ No newline at end of file
+
+    // flushed, so the vote the request inserts right away does not run ahead of the pending delete
+    private void deleteVote(int id) {
+        voteRepository.deleteById(id);
+        voteRepository.flush();
+    }
+}
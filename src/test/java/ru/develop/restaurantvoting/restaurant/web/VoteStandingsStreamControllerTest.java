@@ -0,0 +1,105 @@
+package ru.develop.restaurantvoting.restaurant.web;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithUserDetails;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.develop.restaurantvoting.AbstractControllerTest;
+import ru.develop.restaurantvoting.TestTimeProviderConfig;
+
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.develop.restaurantvoting.restaurant.web.RestaurantController.REST_URL;
+import static ru.develop.restaurantvoting.user.UserTestData.USER_MAIL;
+
+// votes reach the stream after commit, so these tests run without the rollback transaction
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class VoteStandingsStreamControllerTest extends AbstractControllerTest {
+    private static final String STREAM_URL = REST_URL + "/votes/today/stream";
+
+    @DynamicPropertySource
+    static void streamProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> "jdbc:h2:mem:voting_standings_stream");
+        registry.add("app.vote.stream.interval", () -> "20ms");
+    }
+
+    @Autowired
+    private TestTimeProviderConfig.TestTimeProvider testTimeProvider;
+
+    @Test
+    @WithUserDetails(value = USER_MAIL)
+    void streamFollowsVotes() throws Exception {
+        testTimeProvider.setTimeBeforeDeadline();
+        MvcResult stream = subscribe();
+        awaitContent(stream, content -> content.contains("event:standings"));
+        assertThat(stream.getResponse().getContentType()).startsWith(MediaType.TEXT_EVENT_STREAM_VALUE);
+
+        vote(3);
+        try {
+            awaitContent(stream, content -> content.contains("{\"restaurantId\":3,\"votes\":1}"));
+        } finally {
+            vote(1);
+        }
+    }
+
+    @Test
+    @WithUserDetails(value = USER_MAIL)
+    void streamClosesAtDeadline() throws Exception {
+        testTimeProvider.setTimeBeforeDeadline();
+        MvcResult stream = subscribe();
+        awaitContent(stream, content -> content.contains("event:standings"));
+
+        testTimeProvider.setTimeAfterDeadline();
+        awaitContent(stream, content -> content.contains("event:final"));
+        stream.getAsyncResult(5_000);
+    }
+
+    @Test
+    @WithUserDetails(value = USER_MAIL)
+    void streamAfterDeadlineGetsFinalFrame() throws Exception {
+        testTimeProvider.setTimeAfterDeadline();
+        MvcResult stream = subscribe();
+        stream.getAsyncResult(5_000);
+        assertThat(stream.getResponse().getContentAsString())
+                .startsWith("event:final")
+                .doesNotContain("event:standings");
+    }
+
+    @Test
+    void streamUnauthorized() throws Exception {
+        perform(MockMvcRequestBuilders.get(STREAM_URL))
+                .andExpect(status().isUnauthorized());
+    }
+
+    private MvcResult subscribe() throws Exception {
+        return perform(MockMvcRequestBuilders.get(STREAM_URL))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+
+    private void vote(int restaurantId) throws Exception {
+        perform(MockMvcRequestBuilders.put(VoteController.REST_URL + "/today")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"restaurantId\": " + restaurantId + "}"))
+                .andExpect(status().isNoContent());
+    }
+
+    private static void awaitContent(MvcResult stream, Predicate<String> condition) throws Exception {
+        long deadline = System.currentTimeMillis() + 5_000;
+        String content;
+        do {
+            Thread.sleep(20);
+            content = stream.getResponse().getContentAsString();
+        } while (!condition.test(content) && System.currentTimeMillis() < deadline);
+        assertThat(content).matches(condition);
+    }
+}
@@ -0,0 +1,168 @@
+package ru.develop.restaurantvoting.restaurant.web;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithUserDetails;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.json.JsonCompareMode;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.develop.restaurantvoting.AbstractControllerTest;
+import ru.develop.restaurantvoting.TestTimeProviderConfig;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.develop.restaurantvoting.restaurant.RestaurantTestData.RESTAURANT3_ID;
+import static ru.develop.restaurantvoting.restaurant.web.VoteController.REST_URL;
+import static ru.develop.restaurantvoting.user.UserTestData.*;
+
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class VoteWriteBehindControllerTest extends AbstractControllerTest {
+
+    @TempDir
+    static Path journalDir;
+
+    @DynamicPropertySource
+    static void writeBehindProperties(DynamicPropertyRegistry registry) {
+        registry.add("app.vote.write-behind.enabled", () -> "true");
+        registry.add("app.vote.write-behind.flush-interval", () -> "20ms");
+        registry.add("app.vote.write-behind.journal-dir", () -> journalDir.toString());
+        registry.add("spring.datasource.url", () -> "jdbc:h2:mem:voting_write_behind");
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestTimeProviderConfig.TestTimeProvider testTimeProvider;
+
+    @Test
+    @WithUserDetails(value = ADMIN_MAIL)
+    void updateVoteIsFlushedInBackground() throws Exception {
+        testTimeProvider.setTimeBeforeDeadline();
+
+        perform(MockMvcRequestBuilders.put(REST_URL + "/today")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {
+                        "restaurantId": 3
+                    }
+                    """))
+                .andDo(print())
+                .andExpect(status().isNoContent());
+
+        awaitFlushed(ADMIN_ID, RESTAURANT3_ID);
+    }
+
+    @Test
+    @WithUserDetails(value = USER_MAIL)
+    void failedFlushIsRetried() throws Exception {
+        testTimeProvider.setTimeBeforeDeadline();
+        jdbcTemplate.execute("ALTER TABLE votes RENAME TO votes_offline");
+        try {
+            perform(MockMvcRequestBuilders.put(REST_URL + "/today")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("""
+                        {
+                            "restaurantId": 3
+                        }
+                        """))
+                    .andExpect(status().isNoContent());
+            Thread.sleep(200);
+        } finally {
+            jdbcTemplate.execute("ALTER TABLE votes_offline RENAME TO votes");
+        }
+        awaitFlushed(USER_ID, RESTAURANT3_ID);
+    }
+
+    @Test
+    void createdVoteIsReadBackBeforeFlush() throws Exception {
+        perform(MockMvcRequestBuilders.post("/api/profile")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {
+                        "name": "Late Voter",
+                        "email": "late@gmail.com",
+                        "password": "newPassword"
+                    }
+                    """))
+                .andExpect(status().isCreated());
+
+        perform(MockMvcRequestBuilders.post(REST_URL)
+                .with(httpBasic("late@gmail.com", "newPassword"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {
+                        "restaurantId": 3
+                    }
+                    """))
+                .andExpect(status().isCreated());
+
+        perform(MockMvcRequestBuilders.get(REST_URL + "/today")
+                .with(httpBasic("late@gmail.com", "newPassword")))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().json("""
+                    {
+                        "restaurantId": 3,
+                        "restaurantName": "KFC",
+                        "voteDate": "%s"
+                    }
+                    """.formatted(LocalDate.now()), JsonCompareMode.STRICT));
+    }
+
+    @Test
+    @WithUserDetails(value = USER_MAIL)
+    void createVoteDuplicateForToday() throws Exception {
+        perform(MockMvcRequestBuilders.post(REST_URL)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {
+                        "restaurantId": 2
+                    }
+                    """))
+                .andDo(print())
+                .andExpect(status().isConflict())
+                .andExpect(content().string(containsString("User has already voted today")));
+    }
+
+    @Test
+    @WithUserDetails(value = USER_MAIL)
+    void updateVoteAfterDeadline() throws Exception {
+        testTimeProvider.setTimeAfterDeadline();
+
+        perform(MockMvcRequestBuilders.put(REST_URL + "/today")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {
+                        "restaurantId": 3
+                    }
+                    """))
+                .andDo(print())
+                .andExpect(status().isUnprocessableContent());
+    }
+
+    private void awaitFlushed(int userId, int expectedRestaurantId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        Integer restaurantId;
+        do {
+            Thread.sleep(20);
+            restaurantId = jdbcTemplate.queryForObject(
+                    "SELECT restaurant_id FROM votes WHERE user_id = ? AND vote_date = ?",
+                    Integer.class, userId, LocalDate.now());
+        } while (restaurantId != expectedRestaurantId && System.currentTimeMillis() < deadline);
+        assertThat(restaurantId).isEqualTo(expectedRestaurantId);
+    }
+}
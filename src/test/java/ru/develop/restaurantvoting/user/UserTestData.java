@@ -14,11 +14,11 @@ import static ru.develop.restaurantvoting.restaurant.RestaurantTestData.*;
 import static ru.develop.restaurantvoting.restaurant.VoteTestData.*;
 
 public class UserTestData {
-    public static final MatcherFactory.Matcher<User> USER_MATCHER = MatcherFactory.usingIgnoringFieldsComparator(User.class, "registered", "votes", "password");
+    public static final MatcherFactory.Matcher<User> USER_MATCHER = MatcherFactory.usingIgnoringFieldsComparator(User.class, "registered", "votes", "password", "emailKey", "tokenVersion");
     public static MatcherFactory.Matcher<User> USER_WITH_VOTES_MATCHER =
             MatcherFactory.usingAssertions(User.class,
                     (a, e) -> assertThat(a).usingRecursiveComparison()
-                            .ignoringFields("registered", "votes.user", "votes.restaurant.menuItems", "votes.restaurant.votes", "password").isEqualTo(e),
+                            .ignoringFields("registered", "votes.user", "votes.restaurant.menuItems", "votes.restaurant.votes", "votes.restaurant.nameKey", "password", "emailKey").isEqualTo(e),
                     (a, e) -> {
                         throw new UnsupportedOperationException();
                     });
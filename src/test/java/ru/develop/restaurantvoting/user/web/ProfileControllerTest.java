@@ -7,13 +7,16 @@ import org.springframework.security.test.context.support.WithUserDetails;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import ru.develop.restaurantvoting.AbstractControllerTest;
+import ru.develop.restaurantvoting.app.AuthCache;
 import ru.develop.restaurantvoting.common.util.JsonUtil;
 import ru.develop.restaurantvoting.user.model.User;
 import ru.develop.restaurantvoting.user.repository.UserRepository;
 import ru.develop.restaurantvoting.user.to.UserTo;
 import ru.develop.restaurantvoting.user.util.UsersUtil;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.containsString;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -25,6 +28,9 @@ class ProfileControllerTest extends AbstractControllerTest {
     @Autowired
     private UserRepository repository;
 
+    @Autowired
+    private AuthCache authCache;
+
     @Test
     @WithUserDetails(value = USER_MAIL)
     void get() throws Exception {
@@ -77,6 +83,34 @@ class ProfileControllerTest extends AbstractControllerTest {
         USER_MATCHER.assertMatch(repository.getExisted(USER_ID), UsersUtil.updateFromTo(new User(user), updatedTo));
     }
 
+    @Test
+    void getWithCachedCredentials() throws Exception {
+        long hits = authCache.stats().hitCount();
+        perform(MockMvcRequestBuilders.get(REST_URL).with(httpBasic(USER_MAIL, "password")))
+                .andExpect(status().isOk());
+        perform(MockMvcRequestBuilders.get(REST_URL).with(httpBasic(USER_MAIL, "password")))
+                .andExpect(status().isOk())
+                .andExpect(USER_MATCHER.contentJson(user));
+        assertThat(authCache.stats().hitCount()).isEqualTo(hits + 1);
+    }
+
+    @Test
+    void updateEvictsCachedCredentials() throws Exception {
+        perform(MockMvcRequestBuilders.get(REST_URL).with(httpBasic(USER_MAIL, "password")))
+                .andExpect(status().isOk());
+
+        UserTo updatedTo = new UserTo(null, "newName", USER_MAIL, "newPassword");
+        perform(MockMvcRequestBuilders.put(REST_URL).with(httpBasic(USER_MAIL, "password"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(JsonUtil.writeValue(updatedTo)))
+                .andExpect(status().isNoContent());
+
+        perform(MockMvcRequestBuilders.get(REST_URL).with(httpBasic(USER_MAIL, "password")))
+                .andExpect(status().isUnauthorized());
+        perform(MockMvcRequestBuilders.get(REST_URL).with(httpBasic(USER_MAIL, "newPassword")))
+                .andExpect(status().isOk());
+    }
+
     @Test
     void registerInvalid() throws Exception {
         UserTo newTo = new UserTo(null, null, null, null);